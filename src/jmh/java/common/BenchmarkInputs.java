@@ -0,0 +1,64 @@
+package common;
+
+import ch.qos.logback.classic.Level;
+import lombok.SneakyThrows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inputs for the benchmarks: the shipped {@code input.txt} and synthetic inputs scaled up from it.
+ */
+public final class BenchmarkInputs {
+    public static final String INPUT = "input.txt";
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Solvers log every line, which would be measured instead of the solver itself.
+     */
+    public static void quiet() {
+        var root = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.ERROR);
+    }
+
+    /**
+     * Shipped input next to the solver class, e.g. {@code /day01/input.txt}.
+     */
+    public static Input shipped(Class<?> anchor) {
+        return Input.resolve(anchor, INPUT);
+    }
+
+    /**
+     * Shipped input repeated {@code scale} times, suitable for the days where lines are independent.
+     * Scale 1 is the shipped input itself.
+     */
+    public static Input repeated(Class<?> anchor, int scale) {
+        var input = shipped(anchor);
+        if (scale == 1) {
+            return input;
+        }
+        var lines = input.nonBlankLines();
+        var result = new ArrayList<String>(lines.size() * scale);
+        for (int i = 0; i < scale; i++) {
+            result.addAll(lines);
+        }
+        return write(anchor, result);
+    }
+
+    /**
+     * Writes synthetic input into a temporary file, removed on exit.
+     */
+    @SneakyThrows
+    public static Input write(Class<?> anchor, List<String> lines) {
+        var file = Files.createTempFile(anchor.getPackageName() + "-", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, lines, Charset.defaultCharset());
+        return Input.of(file);
+    }
+}
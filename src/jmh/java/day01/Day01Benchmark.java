@@ -0,0 +1,59 @@
+package day01;
+
+import common.BenchmarkInputs;
+import common.Input;
+import common.Lines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and solving on the shipped input (scale 1) and on the input repeated {@code scale} times.
+ * The solvers are single pass, parse only maps the file and solve scans the bytes, so the solve times
+ * include the parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class Day01Benchmark {
+    @Param({"1", "100"})
+    int scale;
+
+    final Task part1 = new Task();
+    final Task part1Vector = new Task(Task.Mode.VECTOR);
+    final Task2 part2 = new Task2();
+    Input input;
+    Lines parsed1;
+    Lines parsed2;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = BenchmarkInputs.repeated(Task.class, scale);
+        parsed1 = part1.parse(input);
+        parsed2 = part2.parse(input);
+    }
+
+    @Benchmark
+    public Object map() {
+        return part1.parse(input);
+    }
+
+    @Benchmark
+    public Object solve1() {
+        return part1.solve(parsed1);
+    }
+
+    @Benchmark
+    public Object solve1Vector() {
+        return part1Vector.solve(parsed1);
+    }
+
+    @Benchmark
+    public Object solve2() {
+        return part2.solve(parsed2);
+    }
+}
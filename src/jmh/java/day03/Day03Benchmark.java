@@ -0,0 +1,71 @@
+package day03;
+
+import common.BenchmarkInputs;
+import common.Input;
+import common.Lines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and solving on the shipped input (scale 1) and on the input repeated {@code scale} times.
+ * The solvers are single pass, parse only maps the file and solve scans the bytes, so the solve times
+ * include the parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day03Benchmark {
+    @Param({"1", "100"})
+    int scale;
+
+    final Task1 part1 = new Task1();
+    final Task2 part2 = new Task2();
+    final Task1 streaming1 = new Task1(Task1.Mode.STREAMING);
+    final Task1 parallel1 = new Task1(Task1.Mode.PARALLEL);
+    final Task2 streaming2 = new Task2(Task2.Mode.STREAMING);
+    Input input;
+    Lines parsed1;
+    Lines parsed2;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = BenchmarkInputs.repeated(Task1.class, scale);
+        parsed1 = part1.parse(input);
+        parsed2 = part2.parse(input);
+    }
+
+    @Benchmark
+    public Object map() {
+        return part1.parse(input);
+    }
+
+    @Benchmark
+    public Object solve1() {
+        return part1.solve(parsed1);
+    }
+
+    @Benchmark
+    public Object solve1Streaming() {
+        return streaming1.solve(parsed1);
+    }
+
+    @Benchmark
+    public Object solve1Parallel() {
+        return parallel1.solve(parsed1);
+    }
+
+    @Benchmark
+    public Object solve2() {
+        return part2.solve(parsed2);
+    }
+
+    @Benchmark
+    public Object solve2Streaming() {
+        return streaming2.solve(parsed2);
+    }
+}
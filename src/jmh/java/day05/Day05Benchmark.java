@@ -0,0 +1,61 @@
+package day05;
+
+import common.BenchmarkInputs;
+import common.Input;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and solve phases on the shipped input (scale 1) and on the input with seeds repeated {@code scale} times,
+ * the maps are left as is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day05Benchmark {
+    @Param({"1", "100"})
+    int scale;
+
+    final Task1 task = new Task1();
+    final Task1 ranges = new Task1(Task1.Mode.RANGES);
+    Input input;
+    Task1.Almanac parsed;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = scaledSeeds(scale);
+        parsed = task.parse(input);
+    }
+
+    private static Input scaledSeeds(int scale) {
+        var input = BenchmarkInputs.shipped(Task1.class);
+        if (scale == 1) {
+            return input;
+        }
+        var lines = new ArrayList<>(input.lines());
+        var seeds = lines.getFirst().substring("seeds:".length());
+        lines.set(0, "seeds:" + seeds.repeat(scale));
+        return BenchmarkInputs.write(Task1.class, lines);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return task.parse(input);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return task.solve(parsed);
+    }
+
+    @Benchmark
+    public Object solveRanges() {
+        return ranges.solve(parsed);
+    }
+}
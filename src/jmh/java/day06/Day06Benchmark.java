@@ -0,0 +1,76 @@
+package day06;
+
+import common.BenchmarkInputs;
+import common.Input;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and solve phases on the shipped input (scale 1) and on the input with the races repeated {@code scale}
+ * times. Part 2 concatenates all the numbers on a line, so the scaled input takes the {@link java.math.BigInteger}
+ * path. The batch API is timed on {@code 1000 * scale} random races that fit into a long, the big batches
+ * are solved in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day06Benchmark {
+    @Param({"1", "100"})
+    int scale;
+
+    final Task1 task = new Task1();
+    Input input;
+    List<String> parsed;
+    long[] times;
+    long[] distances;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = scaledRaces(scale);
+        parsed = task.parse(input);
+
+        var random = new Random(6);
+        times = new long[1000 * scale];
+        distances = new long[times.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = 1 + random.nextLong(Races.MAX_TIME);
+            distances[i] = random.nextLong(times[i] / 2 * (times[i] - times[i] / 2) + 1);
+        }
+    }
+
+    private static Input scaledRaces(int scale) {
+        var input = BenchmarkInputs.shipped(Task1.class);
+        if (scale == 1) {
+            return input;
+        }
+        var lines = new ArrayList<String>();
+        for (var line : input.nonBlankLines()) {
+            var colon = line.indexOf(':') + 1;
+            lines.add(line.substring(0, colon) + line.substring(colon).repeat(scale));
+        }
+        return BenchmarkInputs.write(Task1.class, lines);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return task.parse(input);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return task.solve(parsed);
+    }
+
+    @Benchmark
+    public Object solveBatch() {
+        return Races.winningOptions(times, distances);
+    }
+}
@@ -0,0 +1,131 @@
+package day08;
+
+import common.BenchmarkInputs;
+import common.Input;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and solve phases on the shipped input (scale 1) and on a generated network with {@code 6 * scale} ghosts.
+ * Repeating the nodes does not make a bigger network, so every ghost gets its own ring of nodes instead,
+ * {@code prime * instructions} long, which keeps the meeting within a long.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day08Benchmark {
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    // last chars of the inner nodes, neither start nor end
+    private static final String INNER = DIGITS.replace("A", "").replace("Z", "");
+    private static final int[] PRIMES = {43, 47, 53, 59, 61, 67};
+    private static final int INSTRUCTIONS = 11;
+
+    @Param({"1", "10"})
+    int scale;
+
+    final Task1 part1 = new Task1(false);
+    final Task1 part2 = new Task1(true);
+    Input input;
+    Network parsed1;
+    Network parsed2;
+    int[] starts2;
+    long[] meetings2;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = scale == 1 ? BenchmarkInputs.shipped(Task1.class) : generated(6 * scale);
+        parsed1 = part1.parse(input);
+        parsed2 = part2.parse(input);
+        starts2 = parsed2.nodesEndingWith('A');
+        meetings2 = new long[starts2.length];
+        Arrays.fill(meetings2, (long) part2.solve(parsed2));
+    }
+
+    /**
+     * Ghost 0 walks from AAA to ZZZ, the others from {@code ..A} to {@code ..Z} of the same prefix.
+     */
+    private static Input generated(int ghosts) {
+        var random = new Random(8);
+        var lines = new ArrayList<String>();
+        var instructions = new StringBuilder();
+        for (int i = 0; i < INSTRUCTIONS; i++) {
+            instructions.append(random.nextBoolean() ? 'L' : 'R');
+        }
+        lines.add(instructions.toString());
+        lines.add("");
+        var inner = 0;
+        var prefix = 0;
+        for (int ghost = 0; ghost < ghosts; ghost++) {
+            String start, end;
+            if (ghost == 0) {
+                start = "AAA";
+                end = "ZZZ";
+            } else {
+                do {
+                    prefix++;
+                } while (name(prefix, 'A').equals("AAA") || name(prefix, 'A').equals("ZZA"));
+                start = name(prefix, 'A');
+                end = name(prefix, 'Z');
+            }
+            // start -> ring of inner nodes -> end -> back to the first inner node
+            var length = PRIMES[ghost % PRIMES.length] * INSTRUCTIONS;
+            var ring = new String[length - 1];
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = name(inner / INNER.length(), INNER.charAt(inner % INNER.length()));
+                inner++;
+            }
+            lines.add(node(start, ring[0]));
+            for (int i = 0; i + 1 < ring.length; i++) {
+                lines.add(node(ring[i], ring[i + 1]));
+            }
+            lines.add(node(ring[ring.length - 1], end));
+            lines.add(node(end, ring[0]));
+        }
+        return BenchmarkInputs.write(Task1.class, lines);
+    }
+
+    private static String name(int prefix, char last) {
+        return "" + DIGITS.charAt(prefix / DIGITS.length()) + DIGITS.charAt(prefix % DIGITS.length()) + last;
+    }
+
+    private static String node(String name, String next) {
+        return "%s = (%s, %s)".formatted(name, next, next);
+    }
+
+    @Benchmark
+    public Object parse1() {
+        return part1.parse(input);
+    }
+
+    @Benchmark
+    public Object solve1() {
+        return part1.solve(parsed1);
+    }
+
+    @Benchmark
+    public Object parse2() {
+        return part2.parse(input);
+    }
+
+    @Benchmark
+    public Object solve2() {
+        return part2.solve(parsed2);
+    }
+
+    /**
+     * Jump tables up to the meeting and the positions of the ghosts there.
+     */
+    @Benchmark
+    public Object jumps2() {
+        var jumps = new Jumps(parsed2, node -> parsed2.endsWith(node, 'Z'), meetings2[0]);
+        return jumps.positions(starts2, meetings2);
+    }
+}
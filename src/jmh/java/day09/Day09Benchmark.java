@@ -0,0 +1,42 @@
+package day09;
+
+import common.BenchmarkInputs;
+import common.Input;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and solve phases on the shipped input (scale 1) and on the input repeated {@code scale} times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day09Benchmark {
+    @Param({"1", "100"})
+    int scale;
+
+    final Task1 task = new Task1();
+    Input input;
+    long[][] parsed;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = BenchmarkInputs.repeated(Task1.class, scale);
+        parsed = task.parse(input);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return task.parse(input);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return task.solve(parsed);
+    }
+}
@@ -0,0 +1,115 @@
+package day10;
+
+import common.BenchmarkInputs;
+import common.Input;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and solve phases on the shipped input (scale 1) and on a generated square grid of {@code 140 * scale}
+ * tiles. The generated loop snakes through every other row, so both the walk and the enclosed area grow with
+ * the grid, and the tiles off the loop are random pipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day10Benchmark {
+    private static final int SIDE = 140;
+    private static final String TILES = "|-LJ7F.";
+
+    @Param({"1", "10"})
+    int scale;
+
+    final Task1 task = new Task1();
+    Input input;
+    char[][] parsed;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = scale == 1 ? BenchmarkInputs.shipped(Task1.class) : generated(SIDE * scale);
+        parsed = task.parse(input);
+    }
+
+    /**
+     * The loop starts at S in the top left corner, snakes right and left along the odd rows down to the last
+     * row {@code ≡ 3 (mod 4)}, so that it ends on the left, and returns up the second column.
+     */
+    private static Input generated(int side) {
+        var random = new Random(10);
+        var grid = new char[side][side];
+        for (var row : grid) {
+            for (int x = 0; x < side; x++) {
+                row[x] = TILES.charAt(random.nextInt(TILES.length()));
+            }
+        }
+        for (int i = 0; i < side; i++) {
+            grid[0][i] = grid[side - 1][i] = grid[i][0] = grid[i][side - 1] = '.';
+        }
+
+        var path = new ArrayList<int[]>();
+        var last = side - 2;
+        while (last % 4 != 3) {
+            last--;
+        }
+        var left = 2;
+        var right = side - 2;
+        path.add(new int[]{1, 1});
+        for (int y = 1; y <= last; y += 2) {
+            var rightwards = y % 4 == 1;
+            for (int x = rightwards ? left : right; x >= left && x <= right; x += rightwards ? 1 : -1) {
+                path.add(new int[]{x, y});
+            }
+            if (y < last) {
+                path.add(new int[]{rightwards ? right : left, y + 1});
+            }
+        }
+        for (int y = last; y > 1; y--) {
+            path.add(new int[]{1, y});
+        }
+
+        for (int i = 1; i < path.size(); i++) {
+            var at = path.get(i);
+            grid[at[1]][at[0]] = pipe(at, path.get(i - 1), path.get((i + 1) % path.size()));
+        }
+        grid[1][1] = 'S';
+        var lines = new ArrayList<String>(side);
+        for (var row : grid) {
+            lines.add(new String(row));
+        }
+        return BenchmarkInputs.write(Task1.class, lines);
+    }
+
+    /**
+     * The pipe connecting the tile to both of its neighbours on the loop.
+     */
+    private static char pipe(int[] at, int[] a, int[] b) {
+        var north = a[1] < at[1] || b[1] < at[1];
+        var south = a[1] > at[1] || b[1] > at[1];
+        var east = a[0] > at[0] || b[0] > at[0];
+        var west = a[0] < at[0] || b[0] < at[0];
+        if (north) {
+            return south ? '|' : east ? 'L' : 'J';
+        }
+        if (south) {
+            return east ? 'F' : '7';
+        }
+        return '-';
+    }
+
+    @Benchmark
+    public Object parse() {
+        return task.parse(input);
+    }
+
+    @Benchmark
+    public Object solve() {
+        return task.solve(parsed);
+    }
+}
@@ -0,0 +1,44 @@
+package day12;
+
+import common.BenchmarkInputs;
+import common.Input;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and part 1 phases on the shipped input (scale 1) and on the input repeated {@code scale} times.
+ * Part 2 is not measured, it does not finish in reasonable time yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Day12Benchmark {
+    @Param({"1", "10"})
+    int scale;
+
+    final Task1 task = new Task1();
+    Input input;
+    List<Task1.Springs> parsed;
+
+    @Setup
+    public void setup() {
+        BenchmarkInputs.quiet();
+        input = BenchmarkInputs.repeated(Task1.class, scale);
+        parsed = task.parse(input);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return task.parse(input);
+    }
+
+    @Benchmark
+    public Object solve1() {
+        return task.part1(parsed);
+    }
+}
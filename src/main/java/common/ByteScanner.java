@@ -0,0 +1,110 @@
+package common;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Parses numbers straight from the bytes of a {@link Line}, skipping everything in between,
+ * e.g. {@code Card 1: 41 48 | 83 86} gives 1, 41, 48, 83, 86. Reusable via {@link #reset(Line)}.
+ */
+public final class ByteScanner {
+    /**
+     * Up to 18 decimal digits always fit into a long.
+     */
+    private static final int SAFE_DIGITS = 18;
+
+    private ByteBuffer buffer;
+    private int position;
+    private int end;
+    private long[] scratch = new long[16];
+
+    public ByteScanner reset(Line line) {
+        return reset(line.buffer(), line.start(), line.end());
+    }
+
+    public ByteScanner reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.position = start;
+        this.end = end;
+        return this;
+    }
+
+    /**
+     * Absolute position in the buffer.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Moves the position after the first occurrence of the byte, or to the end.
+     */
+    public ByteScanner skipPast(byte ch) {
+        while (position < end && buffer.get(position++) != ch) {
+            // skip
+        }
+        return this;
+    }
+
+    /**
+     * Skips to the next number, {@code -} immediately followed by a digit is a negative number.
+     */
+    public boolean hasNext() {
+        while (position < end) {
+            var ch = buffer.get(position);
+            if (isDigit(ch) || ch == '-' && position + 1 < end && isDigit(buffer.get(position + 1))) {
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    public int nextInt() {
+        return Math.toIntExact(nextLong());
+    }
+
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No number after position " + position);
+        }
+        var negative = buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        var from = position;
+        long value = 0;
+        while (position < end) {
+            var ch = buffer.get(position);
+            if (!isDigit(ch)) {
+                break;
+            }
+            if (position - from < SAFE_DIGITS) {
+                value = value * 10 + (ch - '0');
+            } else {
+                value = Math.addExact(Math.multiplyExact(value, 10), ch - '0');
+            }
+            position++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * All the remaining numbers, only the result is allocated.
+     */
+    public long[] longs() {
+        var n = 0;
+        while (hasNext()) {
+            if (n == scratch.length) {
+                scratch = Arrays.copyOf(scratch, n * 2);
+            }
+            scratch[n++] = nextLong();
+        }
+        return Arrays.copyOf(scratch, n);
+    }
+
+    public static boolean isDigit(byte ch) {
+        return ch >= '0' && ch <= '9';
+    }
+}
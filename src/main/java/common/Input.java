@@ -0,0 +1,95 @@
+package common;
+
+import lombok.SneakyThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puzzle input file. The single place where solvers get their input from, either as {@link #mapped()} lines
+ * or decoded into strings and chars.
+ */
+public final class Input {
+    private final Path path;
+
+    private Input(Path path) {
+        this.path = path;
+    }
+
+    public static Input of(Path path) {
+        return new Input(path);
+    }
+
+    /**
+     * Resolves input by name: file system path first, then a classpath resource next to the anchor class,
+     * e.g. {@code input.txt} for {@code day01.Task} is {@code /day01/input.txt}.
+     */
+    @SneakyThrows
+    public static Input resolve(Class<?> anchor, String name) {
+        var path = Paths.get(name);
+        if (Files.isRegularFile(path)) {
+            return new Input(path);
+        }
+        var resource = anchor.getResource(name);
+        if (resource == null) {
+            throw new IllegalArgumentException("Cannot find input '%s' for %s".formatted(name, anchor.getName()));
+        }
+        if (!"file".equals(resource.getProtocol())) {
+            // packed into a jar, e.g. benchmarks, extract it so the input is always a plain file
+            var file = Files.createTempFile(anchor.getPackageName() + "-", "-" + name);
+            file.toFile().deleteOnExit();
+            try (var in = resource.openStream()) {
+                Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new Input(file);
+        }
+        return new Input(Paths.get(resource.toURI()));
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public String name() {
+        return path.getFileName().toString();
+    }
+
+    /**
+     * Memory mapped lines, nothing is read or decoded until a solver asks for it.
+     */
+    public Lines mapped() {
+        return Lines.map(path);
+    }
+
+    public List<String> lines() {
+        var result = new ArrayList<String>();
+        mapped().forEach(line -> result.add(line.toString()));
+        return result;
+    }
+
+    public List<String> nonBlankLines() {
+        var result = new ArrayList<String>();
+        mapped().forEach(line -> {
+            if (!line.isBlank()) {
+                result.add(line.toString());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Non-blank lines as chars, decoded straight from the bytes.
+     */
+    public char[][] grid() {
+        return mapped().grid();
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
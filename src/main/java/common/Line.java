@@ -0,0 +1,105 @@
+package common;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Zero-copy view of a single line of the {@link Lines}, without the line terminator.
+ * <p>
+ * Instances are reused by {@link Lines#forEach} and {@link Lines.Cursor}, so a line must not be kept after
+ * the callback returns or the cursor moves on, use {@link #toString()} or {@link #toCharArray()} to keep a copy.
+ */
+public final class Line {
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+
+    public Line() {
+    }
+
+    public Line(ByteBuffer buffer, int start, int end) {
+        set(buffer, start, end);
+    }
+
+    Line set(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    /**
+     * Underlying buffer, shared with the other lines of the same region.
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Absolute offset of the first byte in the {@link #buffer()}.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Absolute offset after the last byte in the {@link #buffer()}.
+     */
+    public int end() {
+        return end;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * Byte at the index relative to the line start.
+     */
+    public byte byteAt(int index) {
+        return buffer.get(start + index);
+    }
+
+    /**
+     * Index of the byte relative to the line start, or -1.
+     */
+    public int indexOf(byte ch, int from) {
+        for (int i = start + from; i < end; i++) {
+            if (buffer.get(i) == ch) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            var ch = buffer.get(i);
+            if (ch != ' ' && ch != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the line as chars, for the solvers working on a grid. Input is expected to be ASCII.
+     */
+    public char[] toCharArray() {
+        var result = new char[length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (char) (buffer.get(start + i) & 0xff);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the line, allocates.
+     */
+    @Override
+    public String toString() {
+        var bytes = new byte[length()];
+        buffer.get(start, bytes);
+        return new String(bytes, Charset.defaultCharset());
+    }
+}
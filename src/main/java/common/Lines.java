@@ -0,0 +1,179 @@
+package common;
+
+import lombok.SneakyThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Memory mapped input file, handed to the solvers as zero-copy {@link Line} slices, nothing is decoded
+ * unless asked. Files larger than a single mapping are split into regions, each region ends on a line boundary,
+ * so a line never spans two regions.
+ */
+public final class Lines {
+    /**
+     * Maximum size of a single mapped region, a {@link ByteBuffer} is indexed by int.
+     */
+    static final int MAX_REGION = 1 << 30;
+
+    private final List<ByteBuffer> regions;
+    private final long size;
+
+    private Lines(List<ByteBuffer> regions, long size) {
+        this.regions = regions;
+        this.size = size;
+    }
+
+    public static Lines map(Path path) {
+        return map(path, MAX_REGION);
+    }
+
+    @SneakyThrows
+    static Lines map(Path path, int maxRegion) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var regions = new ArrayList<ByteBuffer>();
+            long position = 0;
+            while (position < size) {
+                var length = (int) Math.min(maxRegion, size - position);
+                var region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if (position + length < size) {
+                    // cut at the last line terminator, the rest goes to the next region
+                    var last = length - 1;
+                    while (last >= 0 && region.get(last) != '\n') {
+                        last--;
+                    }
+                    if (last < 0) {
+                        throw new IllegalStateException("Line at %d is longer than %d bytes".formatted(position, maxRegion));
+                    }
+                    length = last + 1;
+                    region = region.slice(0, length);
+                }
+                regions.add(region);
+                position += length;
+            }
+            // mapping stays valid after the channel is closed
+            return new Lines(Collections.unmodifiableList(regions), size);
+        }
+    }
+
+    /**
+     * Mapped regions, each one ends with a line terminator or the end of file.
+     */
+    public List<ByteBuffer> regions() {
+        return regions;
+    }
+
+    /**
+     * File size in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Non-blank lines as chars, decoded straight from the bytes.
+     */
+    public char[][] grid() {
+        var result = new ArrayList<char[]>();
+        forEach(line -> {
+            if (!line.isBlank()) {
+                result.add(line.toCharArray());
+            }
+        });
+        return result.toArray(char[][]::new);
+    }
+
+    /**
+     * Cursor over all the lines, for the plain loops keeping their state in local variables.
+     */
+    public Cursor cursor() {
+        var buffers = regions.toArray(ByteBuffer[]::new);
+        var ends = new int[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            ends[i] = buffers[i].limit();
+        }
+        return new Cursor(buffers, new int[buffers.length], ends);
+    }
+
+    /**
+     * Cursor over the lines of the buffer between {@code from} and {@code to}, which should be on the line boundaries.
+     */
+    public static Cursor cursor(ByteBuffer buffer, int from, int to) {
+        return new Cursor(new ByteBuffer[]{buffer}, new int[]{from}, new int[]{to});
+    }
+
+    /**
+     * Calls the action for each line, the same {@link Line} instance is reused for every call.
+     */
+    public void forEach(Consumer<Line> action) {
+        var cursor = cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            action.accept(line);
+        }
+    }
+
+    /**
+     * Calls the action for each line of the buffer between {@code from} and {@code to},
+     * which should be on the line boundaries. {@code '\r'} before {@code '\n'} is not a part of the line.
+     */
+    public static void forEach(ByteBuffer buffer, int from, int to, Line line, Consumer<Line> action) {
+        var cursor = cursor(buffer, from, to);
+        while (cursor.next(line)) {
+            action.accept(line);
+        }
+    }
+
+    private static int trimCr(ByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    /**
+     * Explicit iteration: {@code while (cursor.next(line)) {...}} points the line at every line in turn.
+     * {@code '\r'} before {@code '\n'} is not a part of the line, a terminator at the end does not start
+     * another line.
+     */
+    public static final class Cursor {
+        private final ByteBuffer[] buffers;
+        private final int[] froms;
+        private final int[] ends;
+        private int index = -1;
+        private int position;
+
+        private Cursor(ByteBuffer[] buffers, int[] froms, int[] ends) {
+            this.buffers = buffers;
+            this.froms = froms;
+            this.ends = ends;
+        }
+
+        /**
+         * Moves the line to the next one, false after the last line.
+         */
+        public boolean next(Line line) {
+            while (index < 0 || position >= ends[index]) {
+                if (index + 1 == buffers.length) {
+                    return false;
+                }
+                index++;
+                position = froms[index];
+            }
+            var buffer = buffers[index];
+            var end = ends[index];
+            var start = position;
+            var i = start;
+            while (i < end && buffer.get(i) != '\n') {
+                i++;
+            }
+            position = i + 1;
+            line.set(buffer, start, trimCr(buffer, start, i));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package common;
+
+import java.io.Serial;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Map-reduce over independent lines: the mapped input is split into chunks on line boundaries,
+ * each chunk is summed up on a fork-join pool and the partial sums are combined.
+ * <p>
+ * A solver only provides the {@link LineFunction}. Blank lines are skipped, same as {@link Input#nonBlankLines()}.
+ * Solvers scanning the raw bytes themselves can provide a {@link ChunkFunction} instead.
+ */
+public final class ParallelLines {
+    /**
+     * Chunk size, big enough to keep the task overhead negligible, small enough to balance the load.
+     */
+    static final int CHUNK = 1 << 20;
+
+    private ParallelLines() {
+    }
+
+    /**
+     * Value of a single line. Called concurrently for lines of different chunks.
+     */
+    @FunctionalInterface
+    public interface LineFunction {
+        long apply(Line line);
+    }
+
+    /**
+     * Value of a chunk of bytes between {@code from} and {@code to}, which are on the line boundaries.
+     * Called concurrently for different chunks.
+     */
+    @FunctionalInterface
+    public interface ChunkFunction {
+        long apply(ByteBuffer buffer, int from, int to);
+    }
+
+    /**
+     * Result of a chunk of bytes between {@code from} and {@code to}, for the results that do not add up,
+     * e.g. the parsed lines. Called concurrently for different chunks.
+     */
+    @FunctionalInterface
+    public interface ChunkMapper<T> {
+        T apply(ByteBuffer buffer, int from, int to);
+    }
+
+    /**
+     * Sum of a stateless function over all the lines.
+     */
+    public static long sum(Lines lines, LineFunction function) {
+        return sum(lines, () -> function);
+    }
+
+    /**
+     * Sum over all the lines, each chunk gets its own function from the factory,
+     * so the function can keep a scratch state, e.g. a {@link ByteScanner}.
+     */
+    public static long sum(Lines lines, Supplier<? extends LineFunction> factory) {
+        return sum(ForkJoinPool.commonPool(), lines, factory);
+    }
+
+    public static long sum(ForkJoinPool pool, Lines lines, Supplier<? extends LineFunction> factory) {
+        return sumChunks(pool, lines, chunk -> chunk.sum(factory.get()));
+    }
+
+    /**
+     * Sum of a stateless function over all the chunks, for the solvers scanning the bytes themselves.
+     */
+    public static long sumChunks(Lines lines, ChunkFunction function) {
+        return sumChunks(ForkJoinPool.commonPool(), lines, chunk -> function.apply(chunk.buffer, chunk.from, chunk.to));
+    }
+
+    /**
+     * Results of the function over all the chunks, in the order of the chunks, so the solver can concatenate them.
+     */
+    public static <T> List<T> mapChunks(Lines lines, ChunkMapper<? extends T> function) {
+        return split(lines, CHUNK).parallelStream()
+          .<T>map(chunk -> function.apply(chunk.buffer, chunk.from, chunk.to))
+          .toList();
+    }
+
+    private static long sumChunks(ForkJoinPool pool, Lines lines, ToLongFunction<Chunk> leaf) {
+        return sum(pool, split(lines, CHUNK), leaf);
+    }
+
+    /**
+     * Sum over the work items split by the solver itself, e.g. when an item needs more than its own lines.
+     * Called concurrently for different items.
+     */
+    public static <T> long sum(ForkJoinPool pool, List<T> items, ToLongFunction<? super T> leaf) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        if (items.size() == 1) {
+            // not worth the hand-off
+            return leaf.applyAsLong(items.getFirst());
+        }
+        return pool.invoke(new SumTask<>(items, 0, items.size(), leaf));
+    }
+
+    static List<Chunk> split(Lines lines, int chunkSize) {
+        var chunks = new ArrayList<Chunk>();
+        for (var region : lines.regions()) {
+            var limit = region.limit();
+            var from = 0;
+            while (from < limit) {
+                var to = Math.min(limit, from + chunkSize);
+                // extend to the end of the line
+                while (to < limit && region.get(to - 1) != '\n') {
+                    to++;
+                }
+                chunks.add(new Chunk(region, from, to));
+                from = to;
+            }
+        }
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk(ByteBuffer.allocate(0), 0, 0));
+        }
+        return chunks;
+    }
+
+    record Chunk(ByteBuffer buffer, int from, int to) {
+        long sum(LineFunction function) {
+            var line = new Line();
+            long acc = 0;
+            var start = from;
+            for (int i = from; i <= to; i++) {
+                if (i == to || buffer.get(i) == '\n') {
+                    if (i > start) {
+                        var end = buffer.get(i - 1) == '\r' ? i - 1 : i;
+                        if (!line.set(buffer, start, end).isBlank()) {
+                            acc = Math.addExact(acc, function.apply(line));
+                        }
+                    }
+                    start = i + 1;
+                }
+            }
+            return acc;
+        }
+    }
+
+    private static class SumTask<T> extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        // tasks never leave the pool, the serialization of ForkJoinTask is not used
+        private final transient List<T> items;
+        private final int from;
+        private final int to;
+        private final transient ToLongFunction<? super T> leaf;
+
+        SumTask(List<T> items, int from, int to, ToLongFunction<? super T> leaf) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 1) {
+                return leaf.applyAsLong(items.get(from));
+            }
+            var mid = (from + to) >>> 1;
+            var left = new SumTask<>(items, from, mid, leaf);
+            left.fork();
+            var right = new SumTask<>(items, mid, to, leaf).compute();
+            return Math.addExact(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package common;
+
+/**
+ * Answer for the solvers computing both parts of the puzzle at once.
+ */
+public record Parts(Object part1, Object part2) {
+    @Override
+    public String toString() {
+        return "part 1: " + part1 + ", part 2: " + part2;
+    }
+}
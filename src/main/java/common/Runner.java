@@ -0,0 +1,109 @@
+package common;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs any subset of the solvers against the classpath or file system inputs,
+ * reporting parse and solve wall time separately.
+ * <p>
+ * Usage: {@code Runner [-i input.txt] [day01 day07.2 ...]}, with no days given all of them are run.
+ */
+@Slf4j
+public class Runner {
+    /**
+     * All known solvers by id, {@code dayNN.P} where P is the puzzle part.
+     */
+    static final Map<String, Supplier<Solver<?>>> SOLVERS = new LinkedHashMap<>();
+
+    static {
+        SOLVERS.put("day01.1", day01.Task::new);
+        SOLVERS.put("day01.2", day01.Task2::new);
+        SOLVERS.put("day02", day02.Task1::new);
+        SOLVERS.put("day03.1", day03.Task1::new);
+        SOLVERS.put("day03.2", day03.Task2::new);
+        SOLVERS.put("day04.1", day04.Task1::new);
+        SOLVERS.put("day04.2", day04.Task2::new);
+        SOLVERS.put("day05", day05.Task1::new);
+        SOLVERS.put("day06", day06.Task1::new);
+        SOLVERS.put("day07.1", () -> new day07.Task1(false));
+        SOLVERS.put("day07.2", () -> new day07.Task1(true));
+        SOLVERS.put("day08.1", () -> new day08.Task1(false));
+        SOLVERS.put("day08.2", () -> new day08.Task1(true));
+        SOLVERS.put("day09", day09.Task1::new);
+        SOLVERS.put("day10", day10.Task1::new);
+        SOLVERS.put("day12", day12.Task1::new);
+    }
+
+    public record Timing(Object result, long parseNanos, long solveNanos) {
+    }
+
+    public static void main(String[] args) {
+        var input = "input.txt";
+        var ids = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-i".equals(args[i]) || "--input".equals(args[i])) {
+                input = args[++i];
+            } else {
+                ids.add(args[i]);
+            }
+        }
+
+        for (var id : select(ids)) {
+            var solver = SOLVERS.get(id).get();
+            report(id, Input.resolve(solver.getClass(), input), solver);
+        }
+    }
+
+    /**
+     * Runs the solver against each of the inputs, to be used from the per-day {@code main}.
+     */
+    public static void run(Solver<?> solver, String... files) {
+        for (var file : files) {
+            report(solver.getClass().getName(), Input.resolve(solver.getClass(), file), solver);
+        }
+    }
+
+    public static <T> Timing run(Solver<T> solver, Input input) {
+        var start = System.nanoTime();
+        var parsed = solver.parse(input);
+        var parsedAt = System.nanoTime();
+        var result = solver.solve(parsed);
+        var solvedAt = System.nanoTime();
+        return new Timing(result, parsedAt - start, solvedAt - parsedAt);
+    }
+
+    private static void report(String id, Input input, Solver<?> solver) {
+        var timing = run(solver, input);
+        log.info("{} result from '{}': {} ({} {} ms, {} {} ms)",
+                 id, input.name(), timing.result(),
+                 solver.isSinglePass() ? "map" : "parse",
+                 "%.3f".formatted(timing.parseNanos() / 1e6),
+                 solver.isSinglePass() ? "scan and solve" : "solve",
+                 "%.3f".formatted(timing.solveNanos() / 1e6));
+    }
+
+    /**
+     * Matches ids by prefix, so {@code day01} selects both parts.
+     */
+    private static List<String> select(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.copyOf(SOLVERS.keySet());
+        }
+        var result = new ArrayList<String>();
+        for (var id : SOLVERS.keySet()) {
+            if (ids.stream().anyMatch(id::startsWith)) {
+                result.add(id);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No solvers matching " + ids + ", known: " + SOLVERS.keySet());
+        }
+        return result;
+    }
+}
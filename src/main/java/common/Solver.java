@@ -0,0 +1,29 @@
+package common;
+
+/**
+ * Single puzzle solver, split into the parse and solve phases so that the {@link Runner}
+ * can time them separately.
+ *
+ * @param <T> parsed puzzle input
+ */
+public interface Solver<T> {
+
+    /**
+     * Parses the puzzle input. Should not be affected by the {@link #solve(Object)} calls,
+     * so the same parsed input can be solved more than once.
+     */
+    T parse(Input input);
+
+    /**
+     * Solves the puzzle, returns the answer. Must not modify the parsed input.
+     */
+    Object solve(T parsed);
+
+    /**
+     * Whether {@link #parse(Input)} only maps the file and {@link #solve(Object)} scans the bytes itself,
+     * so the two phases cannot be timed apart.
+     */
+    default boolean isSinglePass() {
+        return false;
+    }
+}
@@ -1,43 +1,119 @@
 package day01;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Line;
+import common.Lines;
+import common.ParallelLines;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.ByteBuffer;
 
 @Slf4j
-public class Task {
-    private final String file;
+public class Task implements Solver<Lines> {
+    public enum Mode {
+        /**
+         * Byte by byte, the default.
+         */
+        SCALAR,
+        /**
+         * Scalar, logs calibration value of every line, much slower.
+         */
+        TRACE,
+        /**
+         * SIMD via the Vector API, falls back to scalar without {@code --add-modules jdk.incubator.vector}.
+         */
+        VECTOR,
+        /**
+         * Both scalar and vector, fails if they disagree on any chunk.
+         */
+        VERIFY
+    }
+
+    private final Mode mode;
+
+    public Task() {
+        this(Mode.SCALAR);
+    }
 
-    public Task(String file) {
-        this.file = file;
+    public Task(Mode mode) {
+        if ((mode == Mode.VECTOR || mode == Mode.VERIFY) && !isVectorAvailable()) {
+            log.warn("Vector API is not available, run with --add-modules jdk.incubator.vector. Falling back to scalar");
+            mode = Mode.SCALAR;
+        }
+        this.mode = mode;
+    }
+
+    private static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
     }
 
     public static void main(String[] args) {
-        var task = new Task("input.txt");
-        task.run();
-    }
-
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(
-                Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset());
-
-        int acc = 0;
-        for (var line : lines) {
-            char hi = 0, lo = 0;
-            for (char ch : line.toCharArray()) {
-                if (Character.isDigit(ch)) {
-                    hi = hi > 0 ? hi : ch;
-                    lo = ch;
+        Runner.run(new Task(), "input.txt");
+        Runner.run(new Task(Mode.VERIFY), "input.txt");
+    }
+
+    @Override
+    public Lines parse(Input input) {
+        return input.mapped();
+    }
+
+    /**
+     * Lines are scanned straight from the mapped bytes while solving.
+     */
+    @Override
+    public boolean isSinglePass() {
+        return true;
+    }
+
+    @Override
+    public Object solve(Lines lines) {
+        return switch (mode) {
+            case SCALAR -> ParallelLines.sumChunks(lines, Task::calibration);
+            case TRACE -> ParallelLines.sum(lines, this::tracedCalibration);
+            case VECTOR -> ParallelLines.sumChunks(lines, VectorCalibration::calibration);
+            case VERIFY -> ParallelLines.sumChunks(lines, Task::verifiedCalibration);
+        };
+    }
+
+    /**
+     * Single pass over the raw bytes: remembers the first and the last digit of a line, adds them up on the line end.
+     * Lines without digits give 0. No allocations.
+     */
+    static long calibration(ByteBuffer buffer, int from, int to) {
+        long acc = 0;
+        int hi = -1, lo = 0;
+        for (int i = from; i < to; i++) {
+            var digit = buffer.get(i) - '0';
+            if (digit >= 0 && digit <= 9) {
+                hi = hi < 0 ? digit : hi;
+                lo = digit;
+            } else if (digit == '\n' - '0') {
+                if (hi >= 0) {
+                    acc += hi * 10 + lo;
                 }
+                hi = -1;
             }
-            int num = (hi - '0') * 10 + (lo - '0');
-            log.info("{}: {}", num, line);
-            acc += num;
         }
-        log.info("Result: {}", acc);
+        if (hi >= 0) { // no line terminator at the end of file
+            acc += hi * 10 + lo;
+        }
+        return acc;
+    }
+
+    private static long verifiedCalibration(ByteBuffer buffer, int from, int to) {
+        var scalar = calibration(buffer, from, to);
+        var vector = VectorCalibration.calibration(buffer, from, to);
+        if (scalar != vector) {
+            throw new IllegalStateException("Chunk %d..%d: scalar %d, vector %d".formatted(from, to, scalar, vector));
+        }
+        return scalar;
+    }
+
+    private long tracedCalibration(Line line) {
+        var num = calibration(line.buffer(), line.start(), line.end());
+        log.info("{}: {}", num, line);
+        return num;
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,18 @@
 package day01;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Line;
+import common.Lines;
+import common.ParallelLines;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Pattern;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 @Slf4j
-public class Task2 {
+public class Task2 implements Solver<Lines> {
     private static final String[] DIGITS = {
             "zero",
             "one",
@@ -24,54 +25,124 @@ public class Task2 {
             "eight",
             "nine"
     };
-    private static final Map<String, Integer> index;
+    private static final int ALPHABET = 'z' - 'a' + 1;
+    private static final int NONE = -1;
 
-    private static final Pattern pattern;
+    // trie over DIGITS: next state is NEXT[state * ALPHABET + letter], 0 is the root and means no transition
+    private static final int[] NEXT;
+    // digit for the terminal states, NONE otherwise
+    private static final int[] VALUE;
 
     static {
-        pattern = Pattern.compile(String.join("|", DIGITS) + "|\\d");
-
-        index = new HashMap<>();
-        for (int i = 0; i < DIGITS.length; i++) {
-            index.put(DIGITS[i], i);            // 'two' -> 2
-            index.put(Integer.toString(i), i);  // '2'   -> 2
+        var states = 1 + Arrays.stream(DIGITS).mapToInt(String::length).sum();
+        var next = new int[states * ALPHABET];
+        var value = new int[states];
+        Arrays.fill(value, NONE);
+        var size = 1;
+        for (int digit = 0; digit < DIGITS.length; digit++) {
+            var state = 0;
+            for (char ch : DIGITS[digit].toCharArray()) {
+                var index = state * ALPHABET + (ch - 'a');
+                if (next[index] == 0) {
+                    next[index] = size++;
+                }
+                state = next[index];
+            }
+            value[state] = digit;
         }
+        NEXT = Arrays.copyOf(next, size * ALPHABET);
+        VALUE = Arrays.copyOf(value, size);
     }
 
-    private final String file;
+    private final boolean trace;
 
-    public Task2(String file) {
-        this.file = file;
+    public Task2() {
+        this(false);
+    }
+
+    /**
+     * @param trace logs calibration value of every line, much slower
+     */
+    public Task2(boolean trace) {
+        this.trace = trace;
     }
 
     public static void main(String[] args) {
-        var task = new Task2("input.txt");
-        task.run();
+        Runner.run(new Task2(), "input.txt");
+    }
+
+    @Override
+    public Lines parse(Input input) {
+        return input.mapped();
+    }
+
+    /**
+     * Lines are scanned straight from the mapped bytes while solving.
+     */
+    @Override
+    public boolean isSinglePass() {
+        return true;
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(
-                Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset());
-
-        int acc = 0;
-        for (var line : lines) {
-            int hi = 0, lo = 0;
-            var matcher = pattern.matcher(line);
-            while (matcher.find()) {
-                int match = index.get(matcher.group());
-                hi = hi > 0 ? hi : match;
+    @Override
+    public Object solve(Lines lines) {
+        return ParallelLines.sum(lines, trace ? this::tracedCalibration : Task2::calibration);
+    }
+
+    /**
+     * The first digit is searched from the line start and the last one from the line end, so the middle
+     * of a long line is never looked at. Since a match is searched at every position, overlapping words
+     * like {@code oneight} are found on both ends.
+     */
+    static long calibration(Line line) {
+        var buffer = line.buffer();
+        var start = line.start();
+        var end = line.end();
+
+        // a zero is skipped as the first digit, unlike in the first part, which keeps the old behaviour of this part
+        int hi = 0;
+        for (int i = start; i < end && hi == 0; i++) {
+            hi = Math.max(0, match(buffer, i, end));
+        }
+        int lo = 0;
+        for (int i = end - 1; i >= start; i--) {
+            var match = match(buffer, i, end);
+            if (match != NONE) {
                 lo = match;
-                // taking into account numbers with shared characters e.g. oneight
-                // set the region start to continue search after the first character of the match, not the full match
-                if (matcher.start() + 1 < line.length()) {
-                    matcher.region(matcher.start() + 1, line.length());
-                }
+                break;
             }
-            int num = hi * 10 + lo;
-            log.info("{}: {}", num, line);
-            acc += num;
         }
-        log.info("Result: {}", acc);
+        return hi * 10 + lo;
+    }
+
+    /**
+     * Digit or spelled digit starting at the position, or NONE.
+     */
+    private static int match(ByteBuffer buffer, int position, int end) {
+        var digit = buffer.get(position) - '0';
+        if (digit >= 0 && digit <= 9) {
+            return digit;
+        }
+        var state = 0;
+        for (int i = position; i < end; i++) {
+            var letter = buffer.get(i) - 'a';
+            if (letter < 0 || letter >= ALPHABET) {
+                return NONE;
+            }
+            state = NEXT[state * ALPHABET + letter];
+            if (state == 0) {
+                return NONE;
+            }
+            if (VALUE[state] != NONE) {
+                return VALUE[state];
+            }
+        }
+        return NONE;
+    }
+
+    private long tracedCalibration(Line line) {
+        var num = calibration(line);
+        log.info("{}: {}", num, line);
+        return num;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package day01;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+/**
+ * SIMD version of {@link Task#calibration(ByteBuffer, int, int)}: compares whole 32/64-byte lanes against
+ * the digits and the line terminator, then takes the first and the last digit of a line from the lane masks.
+ * <p>
+ * Needs {@code --add-modules jdk.incubator.vector}, only to be loaded when it is available.
+ * The Vector API of Java 21 loads from arrays or preview memory segments only, so the mapped bytes
+ * are bulk copied into a block first.
+ */
+final class VectorCalibration {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length(); // up to 64, so a mask fits into a long
+    private static final int BLOCK = 1 << 16;
+
+    private VectorCalibration() {
+    }
+
+    static long calibration(ByteBuffer buffer, int from, int to) {
+        var block = new byte[Math.min(BLOCK, to - from)];
+        long acc = 0;
+        int hi = -1, lo = 0;
+        for (int blockStart = from; blockStart < to; blockStart += block.length) {
+            var length = Math.min(block.length, to - blockStart);
+            buffer.get(blockStart, block, 0, length);
+            for (int offset = 0; offset < length; offset += LANES) {
+                var vector = offset + LANES <= length
+                        ? ByteVector.fromArray(SPECIES, block, offset)
+                        // tail, lanes out of range are zero, neither digit nor line terminator
+                        : ByteVector.fromArray(SPECIES, block, offset, SPECIES.indexInRange(offset, length));
+                var digits = vector.compare(VectorOperators.GE, (byte) '0')
+                        .and(vector.compare(VectorOperators.LE, (byte) '9'))
+                        .toLong();
+                var terminators = vector.compare(VectorOperators.EQ, (byte) '\n').toLong();
+
+                while (true) {
+                    // digits of the current line within this vector
+                    var end = terminators == 0 ? LANES : Long.numberOfTrailingZeros(terminators);
+                    var lineDigits = end == Long.SIZE ? digits : digits & ((1L << end) - 1);
+                    if (lineDigits != 0) {
+                        if (hi < 0) {
+                            hi = block[offset + Long.numberOfTrailingZeros(lineDigits)] - '0';
+                        }
+                        lo = block[offset + Long.SIZE - 1 - Long.numberOfLeadingZeros(lineDigits)] - '0';
+                    }
+                    if (terminators == 0) {
+                        break; // line continues in the next vector
+                    }
+                    if (hi >= 0) {
+                        acc += hi * 10 + lo;
+                    }
+                    hi = -1;
+                    // drop everything up to and including the terminator
+                    var rest = end >= Long.SIZE - 1 ? 0 : -1L << (end + 1);
+                    digits &= rest;
+                    terminators &= rest;
+                }
+            }
+        }
+        if (hi >= 0) { // no line terminator at the end of file
+            acc += hi * 10 + lo;
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,55 @@
+package day02;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cube colors, the ordinal indexes per-game counters.
+ */
+enum Color {
+    RED, GREEN, BLUE;
+
+    private static final Color[] VALUES = values();
+    private static final byte[][] WORDS = {"red".getBytes(), "green".getBytes(), "blue".getBytes()};
+
+    static Color byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Color of the word starting at the position, -1 if it is not a whole color word. The first letter picks
+     * the candidate, the rest of the word has to match it.
+     */
+    static int indexOf(ByteBuffer buffer, int position, int end) {
+        if (position >= end) {
+            return -1;
+        }
+        var color = switch (buffer.get(position)) {
+            case 'r' -> RED.ordinal();
+            case 'g' -> GREEN.ordinal();
+            case 'b' -> BLUE.ordinal();
+            default -> -1;
+        };
+        if (color < 0) {
+            return -1;
+        }
+        var word = WORDS[color];
+        if (end - position < word.length) {
+            return -1;
+        }
+        for (int i = 1; i < word.length; i++) {
+            if (buffer.get(position + i) != word[i]) {
+                return -1;
+            }
+        }
+        var after = position + word.length;
+        return after == end || !isLetter(buffer.get(after)) ? color : -1;
+    }
+
+    static int length(int color) {
+        return WORDS[color].length;
+    }
+
+    private static boolean isLetter(byte ch) {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z';
+    }
+}
@@ -0,0 +1,249 @@
+package day02;
+
+import common.Lines;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * Index of per-game maximum cubes answering "sum of ids of the games possible with (red, green, blue) cubes in the bag"
+ * for many bags without rescanning the games.
+ * <p>
+ * Games are kept as columns. On top of them there is a 3D prefix sum over the distinct counts
+ * of every color: {@code sums[r][g][b]} is the sum of ids of the games with at most r-th distinct red,
+ * g-th distinct green and b-th distinct blue. A query is then three binary searches and a single read.
+ * <p>
+ * If there are too many distinct counts for the table, the columns are laid out as a k-d tree instead:
+ * the games between {@code lo} and {@code hi} are sorted by the color of their depth and the median
+ * {@code mid = (lo + hi) / 2} is the root keeping the bounding box and the sum of ids of the whole range.
+ * A query takes the sum of a box within the bag, skips a box outside it and only descends into the boxes
+ * crossing its boundary, {@code O(n^(2/3))} of them at worst.
+ */
+@Slf4j
+public final class GameIndex {
+    /**
+     * Maximum size of the prefix sum table, 128 MiB of longs.
+     */
+    static final long MAX_CELLS = 1 << 24;
+
+    private final int[] ids;
+    private final int[] red;
+    private final int[] green;
+    private final int[] blue;
+
+    private final int[] reds;
+    private final int[] greens;
+    private final int[] blues;
+    private final long[] sums; // null if too big
+
+    // k-d tree if there are no sums: minimum and maximum red, green and blue of the subtree at mid * 6
+    private final int[] boxes;
+    private final long[] subtreeSums;
+
+    private GameIndex(int[][] columns, long maxCells) {
+        this.ids = columns[0];
+        this.red = columns[1];
+        this.green = columns[2];
+        this.blue = columns[3];
+        this.reds = distinct(red);
+        this.greens = distinct(green);
+        this.blues = distinct(blue);
+        var cells = (long) reds.length * greens.length * blues.length;
+        if (cells <= maxCells) {
+            this.sums = prefixSums();
+            this.boxes = null;
+            this.subtreeSums = null;
+        } else {
+            log.warn("{} cells of the prefix sums exceed {}, queries walk a k-d tree of the {} games",
+                     cells, maxCells, ids.length);
+            this.sums = null;
+            layout(columns, 0, ids.length, 0);
+            this.boxes = new int[ids.length * 6];
+            this.subtreeSums = new long[ids.length];
+            if (ids.length > 0) {
+                box(0, ids.length);
+            }
+        }
+    }
+
+    public static GameIndex build(Lines lines) {
+        return build(Games.parse(lines));
+    }
+
+    static GameIndex build(Games games) {
+        return build(games, MAX_CELLS);
+    }
+
+    static GameIndex build(Games games, long maxCells) {
+        var n = games.size();
+        var columns = new int[4][n];
+        for (int i = 0; i < n; i++) {
+            columns[0][i] = games.id(i);
+            columns[1][i] = games.cubes(i, Color.RED);
+            columns[2][i] = games.cubes(i, Color.GREEN);
+            columns[3][i] = games.cubes(i, Color.BLUE);
+        }
+        return new GameIndex(columns, maxCells);
+    }
+
+    /**
+     * Whether the queries are answered from the prefix sums, not by the k-d tree.
+     */
+    boolean isTable() {
+        return sums != null;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Sum of ids of the games possible with the given bag, {@code O(log n)} from the prefix sums,
+     * {@code O(n^(2/3))} from the k-d tree once the table would exceed {@link #MAX_CELLS}.
+     */
+    public long sumOfPossibleIds(int maxRed, int maxGreen, int maxBlue) {
+        if (sums == null) {
+            return query(0, ids.length, maxRed, maxGreen, maxBlue);
+        }
+        var r = countAtMost(reds, maxRed);
+        var g = countAtMost(greens, maxGreen);
+        var b = countAtMost(blues, maxBlue);
+        if (r == 0 || g == 0 || b == 0) {
+            return 0;
+        }
+        return sums[cell(r - 1, g - 1, b - 1)];
+    }
+
+    /**
+     * Answers the batch of queries in parallel, {@code bags[i]} is {red, green, blue}.
+     */
+    public long[] sumOfPossibleIds(int[][] bags) {
+        var result = new long[bags.length];
+        Arrays.parallelSetAll(result, i -> sumOfPossibleIds(bags[i][0], bags[i][1], bags[i][2]));
+        return result;
+    }
+
+    private long query(int lo, int hi, int maxRed, int maxGreen, int maxBlue) {
+        if (lo >= hi) {
+            return 0;
+        }
+        var mid = (lo + hi) >>> 1;
+        var at = mid * 6;
+        if (boxes[at] > maxRed || boxes[at + 1] > maxGreen || boxes[at + 2] > maxBlue) {
+            return 0;
+        }
+        if (boxes[at + 3] <= maxRed && boxes[at + 4] <= maxGreen && boxes[at + 5] <= maxBlue) {
+            return subtreeSums[mid];
+        }
+        long acc = red[mid] <= maxRed && green[mid] <= maxGreen && blue[mid] <= maxBlue ? ids[mid] : 0;
+        return acc + query(lo, mid, maxRed, maxGreen, maxBlue) + query(mid + 1, hi, maxRed, maxGreen, maxBlue);
+    }
+
+    /**
+     * Sorts the games between {@code lo} and {@code hi} by red, green or blue depending on the depth,
+     * then both halves around the median one level deeper.
+     */
+    private static void layout(int[][] columns, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        sortBy(columns, columns[1 + depth % 3], lo, hi);
+        var mid = (lo + hi) >>> 1;
+        layout(columns, lo, mid, depth + 1);
+        layout(columns, mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Sorts the rows between {@code lo} and {@code hi} by the non-negative key, a key and its row are packed
+     * into a long.
+     */
+    private static void sortBy(int[][] columns, int[] key, int lo, int hi) {
+        var packed = new long[hi - lo];
+        for (int i = lo; i < hi; i++) {
+            packed[i - lo] = (long) key[i] << 32 | i;
+        }
+        Arrays.sort(packed);
+        for (var column : columns) {
+            var copy = Arrays.copyOfRange(column, lo, hi);
+            for (int i = 0; i < packed.length; i++) {
+                column[lo + i] = copy[(int) packed[i] - lo];
+            }
+        }
+    }
+
+    /**
+     * Bounding box and sum of ids of the subtree between {@code lo} and {@code hi}.
+     */
+    private void box(int lo, int hi) {
+        var mid = (lo + hi) >>> 1;
+        var at = mid * 6;
+        boxes[at] = boxes[at + 3] = red[mid];
+        boxes[at + 1] = boxes[at + 4] = green[mid];
+        boxes[at + 2] = boxes[at + 5] = blue[mid];
+        subtreeSums[mid] = ids[mid];
+        if (lo < mid) {
+            box(lo, mid);
+            merge(at, (lo + mid) >>> 1);
+        }
+        if (mid + 1 < hi) {
+            box(mid + 1, hi);
+            merge(at, (mid + 1 + hi) >>> 1);
+        }
+    }
+
+    private void merge(int at, int child) {
+        for (int c = 0; c < 3; c++) {
+            boxes[at + c] = Math.min(boxes[at + c], boxes[child * 6 + c]);
+            boxes[at + 3 + c] = Math.max(boxes[at + 3 + c], boxes[child * 6 + 3 + c]);
+        }
+        subtreeSums[at / 6] += subtreeSums[child];
+    }
+
+    private long[] prefixSums() {
+        var result = new long[reds.length * greens.length * blues.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[cell(Arrays.binarySearch(reds, red[i]),
+                        Arrays.binarySearch(greens, green[i]),
+                        Arrays.binarySearch(blues, blue[i]))] += ids[i];
+        }
+        // running sums along every axis give the sum over the whole dominated box
+        for (int r = 0; r < reds.length; r++) {
+            for (int g = 0; g < greens.length; g++) {
+                for (int b = 1; b < blues.length; b++) {
+                    result[cell(r, g, b)] += result[cell(r, g, b - 1)];
+                }
+            }
+        }
+        for (int r = 0; r < reds.length; r++) {
+            for (int g = 1; g < greens.length; g++) {
+                for (int b = 0; b < blues.length; b++) {
+                    result[cell(r, g, b)] += result[cell(r, g - 1, b)];
+                }
+            }
+        }
+        for (int r = 1; r < reds.length; r++) {
+            for (int g = 0; g < greens.length; g++) {
+                for (int b = 0; b < blues.length; b++) {
+                    result[cell(r, g, b)] += result[cell(r - 1, g, b)];
+                }
+            }
+        }
+        return result;
+    }
+
+    private int cell(int r, int g, int b) {
+        return (r * greens.length + g) * blues.length + b;
+    }
+
+    private static int[] distinct(int[] column) {
+        return Arrays.stream(column).distinct().sorted().toArray();
+    }
+
+    /**
+     * Number of the sorted distinct values not greater than the key.
+     */
+    private static int countAtMost(int[] values, int key) {
+        var index = Arrays.binarySearch(values, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+}
@@ -0,0 +1,170 @@
+package day02;
+
+import common.ByteScanner;
+import common.Line;
+import common.Lines;
+import common.ParallelLines;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parsed games as the ids and the maximum count of each color seen in the game, three ints per game.
+ * The tokenizer for {@code Game 1: 3 blue, 4 red; 1 red, 2 green, 6 blue; 2 green} walks the bytes once,
+ * both parts are answered from the maximums. Chunks of the input are parsed in parallel and concatenated
+ * in the order of the lines.
+ */
+@Slf4j
+final class Games {
+    private static final int COLORS = Color.values().length;
+
+    private final int[] ids;
+    // maximums of the i-th game at i * COLORS, indexed by Color#ordinal()
+    private final int[] cubes;
+    private final int size;
+
+    private Games(int[] ids, int[] cubes, int size) {
+        this.ids = ids;
+        this.cubes = cubes;
+        this.size = size;
+    }
+
+    static Games parse(Lines lines) {
+        var parts = ParallelLines.mapChunks(lines, (buffer, from, to) -> parse(Lines.cursor(buffer, from, to)));
+        return parts.size() == 1 ? parts.getFirst() : concat(parts);
+    }
+
+    private static Games parse(Lines.Cursor cursor) {
+        var ids = new int[256];
+        var cubes = new int[256 * COLORS];
+        var size = 0;
+        var game = new int[COLORS];
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                cubes = Arrays.copyOf(cubes, size * 2 * COLORS);
+            }
+            ids[size] = parse(line, game);
+            System.arraycopy(game, 0, cubes, size * COLORS, COLORS);
+            size++;
+        }
+        return new Games(ids, cubes, size);
+    }
+
+    private static Games concat(List<Games> parts) {
+        var size = parts.stream().mapToInt(Games::size).sum();
+        var ids = new int[size];
+        var cubes = new int[size * COLORS];
+        var at = 0;
+        for (var part : parts) {
+            System.arraycopy(part.ids, 0, ids, at, part.size);
+            System.arraycopy(part.cubes, 0, cubes, at * COLORS, part.size * COLORS);
+            at += part.size;
+        }
+        return new Games(ids, cubes, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int id(int game) {
+        return ids[game];
+    }
+
+    int cubes(int game, Color color) {
+        return cubes[game * COLORS + color.ordinal()];
+    }
+
+    /**
+     * Sum of ids of the games possible with the bag, indexed by {@link Color#ordinal()}.
+     */
+    long sumOfPossibleIds(int[] limits) {
+        long acc = 0;
+        for (int i = 0; i < size; i++) {
+            if (isPossible(i, limits)) {
+                acc += ids[i];
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Sum of the products of the maximums, a color not seen in the game is not multiplied in.
+     */
+    long sumOfPowers() {
+        long acc = 0;
+        for (int i = 0; i < size; i++) {
+            acc += power(i);
+        }
+        return acc;
+    }
+
+    private boolean isPossible(int game, int[] limits) {
+        for (int color = 0; color < COLORS; color++) {
+            if (cubes[game * COLORS + color] > limits[color]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long power(int game) {
+        long power = 1;
+        for (int color = 0; color < COLORS; color++) {
+            var count = cubes[game * COLORS + color];
+            if (count == 0) {
+                log.warn("Game {} - no {} cubes found!", ids[game], Color.byOrdinal(color));
+            } else {
+                power *= count;
+            }
+        }
+        return power;
+    }
+
+    /**
+     * Fills {@code maxCubes}, indexed by {@link Color#ordinal()}, returns game id.
+     */
+    static int parse(Line line, int[] maxCubes) {
+        var buffer = line.buffer();
+        var end = line.end();
+        var i = line.start();
+        while (i < end && !ByteScanner.isDigit(buffer.get(i))) { // "Game "
+            i++;
+        }
+        var id = 0;
+        while (i < end && ByteScanner.isDigit(buffer.get(i))) {
+            id = id * 10 + buffer.get(i++) - '0';
+        }
+        if (i == end || buffer.get(i) != ':') {
+            throw new RuntimeException("incorrect line: " + line);
+        }
+        i++;
+
+        maxCubes[0] = maxCubes[1] = maxCubes[2] = 0;
+        while (i < end) {
+            var ch = buffer.get(i);
+            if (!ByteScanner.isDigit(ch)) { // separators: ' ', ',', ';'
+                i++;
+                continue;
+            }
+            var count = 0;
+            while (i < end && ByteScanner.isDigit(buffer.get(i))) {
+                count = count * 10 + buffer.get(i++) - '0';
+            }
+            i++; // space between count and color
+            var color = Color.indexOf(buffer, i, end);
+            if (color < 0) {
+                throw new RuntimeException("unknown color: " + line);
+            }
+            i += Color.length(color);
+            maxCubes[color] = Math.max(maxCubes[color], count);
+        }
+        return id;
+    }
+}
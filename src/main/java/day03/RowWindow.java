@@ -0,0 +1,104 @@
+package day03;
+
+import common.Line;
+import common.Lines;
+
+import java.util.Arrays;
+
+/**
+ * Streams the schematic keeping only the previous, the current and the next row, so the memory does not depend
+ * on the number of rows. A row is handed over as soon as its next row is read, since nothing below can affect it.
+ */
+final class RowWindow {
+    private RowWindow() {
+    }
+
+    /**
+     * Value of the current row, given its neighbours. Missing neighbours of the first and the last row are empty.
+     */
+    @FunctionalInterface
+    interface RowFunction {
+        long apply(Row prev, Row current, Row next, int index);
+    }
+
+    static long sum(Lines lines, RowFunction function) {
+        Row prev = new Row(), current = new Row(), next = new Row();
+        long acc = 0;
+        var rows = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            // rotate: next becomes current, current becomes previous
+            var recycled = prev;
+            prev = current;
+            current = next;
+            next = recycled.load(line);
+            if (rows > 0) {
+                acc = Math.addExact(acc, function.apply(prev, current, next, rows - 1));
+            }
+            rows++;
+        }
+        if (rows > 0) {
+            acc = Math.addExact(acc, function.apply(current, next, prev.clear(), rows - 1));
+        }
+        return acc;
+    }
+
+    /**
+     * Reusable row buffer, reads outside the row give {@code '.'}.
+     */
+    static final class Row {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        Row load(Line line) {
+            length = line.length();
+            if (bytes.length < length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length, bytes.length * 2));
+            }
+            line.buffer().get(line.start(), bytes, 0, length);
+            return this;
+        }
+
+        Row clear() {
+            length = 0;
+            return this;
+        }
+
+        int length() {
+            return length;
+        }
+
+        byte at(int column) {
+            return column >= 0 && column < length ? bytes[column] : (byte) '.';
+        }
+
+        boolean isDigit(int column) {
+            var ch = at(column);
+            return ch >= '0' && ch <= '9';
+        }
+
+        boolean isSymbol(int column) {
+            var ch = at(column);
+            return ch != '.' && (ch < '0' || ch > '9');
+        }
+
+        /**
+         * Number around the column, which must be a digit.
+         */
+        long numberAt(int column) {
+            var start = column;
+            while (isDigit(start - 1)) {
+                start--;
+            }
+            long value = 0;
+            for (int j = start; isDigit(j); j++) {
+                value = Math.addExact(Math.multiplyExact(value, 10), at(j) - '0');
+            }
+            return value;
+        }
+    }
+}
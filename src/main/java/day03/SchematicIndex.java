@@ -0,0 +1,248 @@
+package day03;
+
+import common.Line;
+import common.Lines;
+import lombok.SneakyThrows;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Index of a schematic built by a single scan: number spans (row, start, end, value) and symbol positions,
+ * both grouped by row in flat arrays. Numbers of a row are sorted by the start column and do not overlap,
+ * so the numbers around a symbol are found by a binary search in three rows, the grid is never scanned again.
+ * <p>
+ * Symbol classes are given as predicates over the symbol char, e.g. {@code ch -> ch == '*'}.
+ * The index is serializable, a large schematic can be parsed once and {@link #load loaded} afterwards.
+ */
+public final class SchematicIndex implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Any symbol.
+     */
+    public static final IntPredicate ANY = ch -> true;
+
+    /**
+     * At most 2 numbers above, 2 below and 1 on each side.
+     */
+    private static final int MAX_NEIGHBOURS = 6;
+
+    // numbers, sorted by row, then by start
+    private final int[] numberRow;
+    private final int[] numberStart;
+    private final int[] numberEnd; // exclusive
+    private final long[] numberValue;
+    // numbers of the row r are between rowNumbers[r] and rowNumbers[r + 1]
+    private final int[] rowNumbers;
+
+    // symbols, sorted by row, then by column
+    private final int[] symbolRow;
+    private final int[] symbolColumn;
+    private final byte[] symbolChar;
+
+    private SchematicIndex(int[] numberRow, int[] numberStart, int[] numberEnd, long[] numberValue, int rows,
+                           int[] symbolRow, int[] symbolColumn, byte[] symbolChar) {
+        this.numberRow = numberRow;
+        this.numberStart = numberStart;
+        this.numberEnd = numberEnd;
+        this.numberValue = numberValue;
+        this.symbolRow = symbolRow;
+        this.symbolColumn = symbolColumn;
+        this.symbolChar = symbolChar;
+        this.rowNumbers = new int[rows + 1];
+        for (int row : numberRow) {
+            rowNumbers[row + 1]++;
+        }
+        Arrays.parallelPrefix(rowNumbers, Integer::sum);
+    }
+
+    public static SchematicIndex build(Lines lines) {
+        var numbers = new Spans();
+        var symbols = new Spans();
+        var rows = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            var row = rows++;
+            var j = 0;
+            while (j < line.length()) {
+                var ch = line.byteAt(j);
+                if (ch == '.') {
+                    j++;
+                } else if (ch < '0' || ch > '9') {
+                    symbols.add(row, j, j + 1, ch);
+                    j++;
+                } else {
+                    var start = j;
+                    long value = 0;
+                    while (j < line.length() && (ch = line.byteAt(j)) >= '0' && ch <= '9') {
+                        value = Math.addExact(Math.multiplyExact(value, 10), ch - '0');
+                        j++;
+                    }
+                    numbers.add(row, start, j, value);
+                }
+            }
+        }
+        return new SchematicIndex(
+                Arrays.copyOf(numbers.rows, numbers.size),
+                Arrays.copyOf(numbers.starts, numbers.size),
+                Arrays.copyOf(numbers.ends, numbers.size),
+                Arrays.copyOf(numbers.values, numbers.size),
+                rows,
+                Arrays.copyOf(symbols.rows, symbols.size),
+                Arrays.copyOf(symbols.starts, symbols.size),
+                toBytes(symbols.values, symbols.size));
+    }
+
+    @SneakyThrows
+    public static SchematicIndex load(Path path) {
+        try (var in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return (SchematicIndex) in.readObject();
+        }
+    }
+
+    @SneakyThrows
+    public void save(Path path) {
+        try (var out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeObject(this);
+        }
+    }
+
+    public int rows() {
+        return rowNumbers.length - 1;
+    }
+
+    public int numbers() {
+        return numberValue.length;
+    }
+
+    public int symbols() {
+        return symbolChar.length;
+    }
+
+    public long value(int number) {
+        return numberValue[number];
+    }
+
+    public char symbol(int symbol) {
+        return (char) symbolChar[symbol];
+    }
+
+    /**
+     * Sum of the numbers adjacent to at least one symbol of the class, every number is counted once.
+     */
+    public long sumOfParts(IntPredicate symbolClass) {
+        var parts = new boolean[numbers()];
+        var around = new int[MAX_NEIGHBOURS];
+        for (int s = 0; s < symbols(); s++) {
+            if (symbolClass.test(symbolChar[s])) {
+                var count = neighbours(s, around);
+                for (int k = 0; k < count; k++) {
+                    parts[around[k]] = true;
+                }
+            }
+        }
+        long acc = 0;
+        for (int n = 0; n < parts.length; n++) {
+            if (parts[n]) {
+                acc += numberValue[n];
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Symbols of the class with exactly the given number of adjacent numbers.
+     */
+    public int[] symbolsWithNeighbours(IntPredicate symbolClass, int count) {
+        var around = new int[MAX_NEIGHBOURS];
+        return IntStream.range(0, symbols())
+                .filter(s -> symbolClass.test(symbolChar[s]) && neighbours(s, around) == count)
+                .toArray();
+    }
+
+    /**
+     * Sum over the symbols of the class with exactly the given number of adjacent numbers of their product,
+     * e.g. gear ratios are {@code sumOfProducts(ch -> ch == '*', 2)}.
+     */
+    public long sumOfProducts(IntPredicate symbolClass, int count) {
+        var around = new int[MAX_NEIGHBOURS];
+        long acc = 0;
+        for (int s : symbolsWithNeighbours(symbolClass, count)) {
+            var found = neighbours(s, around);
+            long product = 1;
+            for (int k = 0; k < found; k++) {
+                product = Math.multiplyExact(product, numberValue[around[k]]);
+            }
+            acc = Math.addExact(acc, product);
+        }
+        return acc;
+    }
+
+    /**
+     * Writes the numbers adjacent to the symbol into the array, returns how many.
+     */
+    int neighbours(int symbol, int[] result) {
+        var row = symbolRow[symbol];
+        var column = symbolColumn[symbol];
+        var count = 0;
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows() - 1, row + 1); r++) {
+            // the last number starting not after the next column, then back while it still reaches the column
+            var from = rowNumbers[r];
+            var to = rowNumbers[r + 1];
+            var index = Arrays.binarySearch(numberStart, from, to, column + 1);
+            var n = index >= 0 ? index : -index - 2;
+            for (; n >= from && numberEnd[n] >= column; n--) {
+                result[count++] = n;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] toBytes(long[] values, int size) {
+        var result = new byte[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Growable columns of (row, start, end, value), symbols keep the char as the value.
+     */
+    private static final class Spans {
+        int[] rows = new int[64];
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        long[] values = new long[64];
+        int size;
+
+        void add(int row, int start, int end, long value) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            rows[size] = row;
+            starts[size] = start;
+            ends[size] = end;
+            values[size] = value;
+            size++;
+        }
+    }
+}
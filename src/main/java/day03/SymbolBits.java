@@ -0,0 +1,244 @@
+package day03;
+
+import common.Line;
+import common.Lines;
+import common.ParallelLines;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Part numbers over bitsets: every row gets a {@code long[]} mask of its symbols, the adjacency of a row is
+ * the union of the masks of the row and its neighbours dilated by one column with shifts, and a number
+ * is a part if any of its columns is set in the adjacency.
+ * <p>
+ * The schematic is split into bands of rows summed up in parallel. A band also reads the row right above
+ * and right below it (halo rows), so bands do not depend on each other and the sum is the same
+ * as of the sequential scan.
+ */
+final class SymbolBits {
+    /**
+     * Band size in bytes, extended to the end of the line.
+     */
+    static final int BAND = 1 << 20;
+
+    private SymbolBits() {
+    }
+
+    static long partNumbers(ForkJoinPool pool, Lines lines) {
+        return ParallelLines.sum(pool, split(lines, BAND), Band::partNumbers);
+    }
+
+    static List<Band> split(Lines lines, int bandSize) {
+        var regions = lines.regions();
+        var bands = new ArrayList<Band>();
+        for (int r = 0; r < regions.size(); r++) {
+            var region = regions.get(r);
+            var limit = region.limit();
+            var from = 0;
+            while (from < limit) {
+                var to = Math.min(limit, from + bandSize);
+                while (to < limit && region.get(to - 1) != '\n') {
+                    to++;
+                }
+                bands.add(new Band(region, from, to, rowAbove(regions, r, from), rowBelow(regions, r, to)));
+                from = to;
+            }
+        }
+        return bands;
+    }
+
+    /**
+     * The last non-blank line before the offset, possibly in one of the previous regions, null if none.
+     */
+    private static Line rowAbove(List<ByteBuffer> regions, int region, int offset) {
+        for (int r = region; r >= 0; r--) {
+            var buffer = regions.get(r);
+            var end = r == region ? offset : buffer.limit();
+            while (end > 0) {
+                var lineEnd = buffer.get(end - 1) == '\n' ? end - 1 : end;
+                var start = lineEnd;
+                while (start > 0 && buffer.get(start - 1) != '\n') {
+                    start--;
+                }
+                var line = new Line(buffer, start, trimCr(buffer, start, lineEnd));
+                if (!line.isBlank()) {
+                    return line;
+                }
+                end = start;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The first non-blank line from the offset, possibly in one of the next regions, null if none.
+     */
+    private static Line rowBelow(List<ByteBuffer> regions, int region, int offset) {
+        for (int r = region; r < regions.size(); r++) {
+            var buffer = regions.get(r);
+            var start = r == region ? offset : 0;
+            while (start < buffer.limit()) {
+                var end = start;
+                while (end < buffer.limit() && buffer.get(end) != '\n') {
+                    end++;
+                }
+                var line = new Line(buffer, start, trimCr(buffer, start, end));
+                if (!line.isBlank()) {
+                    return line;
+                }
+                start = end + 1;
+            }
+        }
+        return null;
+    }
+
+    private static int trimCr(ByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    /**
+     * Rows between {@code from} and {@code to} of the buffer, with the halo rows, null at the schematic edges.
+     */
+    record Band(ByteBuffer buffer, int from, int to, Line above, Line below) {
+        long partNumbers() {
+            // previous, current and next row, same rotation as in RowWindow
+            RowBits prev = new RowBits(), current = new RowBits(), next = new RowBits().load(above);
+            long[] adjacency = null;
+            long acc = 0;
+            var rows = 0;
+            var cursor = Lines.cursor(buffer, from, to);
+            var line = new Line();
+            while (cursor.next(line)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                var recycled = prev;
+                prev = current;
+                current = next;
+                next = recycled.load(line);
+                if (rows > 0) {
+                    adjacency = adjacency(prev, current, next, adjacency);
+                    acc = Math.addExact(acc, current.partNumbers(adjacency));
+                }
+                rows++;
+            }
+            if (rows > 0) {
+                var last = prev.load(below);
+                adjacency = adjacency(current, next, last, adjacency);
+                acc = Math.addExact(acc, next.partNumbers(adjacency));
+            }
+            return acc;
+        }
+    }
+
+    /**
+     * Columns of the current row touching a symbol: the union of the three symbol masks, shifted one column
+     * left and right. Bits crossing a word boundary are carried from the neighbouring words.
+     */
+    static long[] adjacency(RowBits prev, RowBits current, RowBits next, long[] scratch) {
+        var words = current.words();
+        var result = scratch != null && scratch.length >= words ? scratch : new long[words];
+        for (int w = 0; w < words; w++) {
+            var mask = union(prev, current, next, w);
+            result[w] = mask | mask << 1 | mask >>> 1
+                    | union(prev, current, next, w - 1) >>> 63
+                    | union(prev, current, next, w + 1) << 63;
+        }
+        return result;
+    }
+
+    private static long union(RowBits prev, RowBits current, RowBits next, int word) {
+        return prev.word(word) | current.word(word) | next.word(word);
+    }
+
+    /**
+     * Whether any bit between {@code from} inclusive and {@code to} exclusive is set.
+     */
+    static boolean anySet(long[] bits, int from, int to) {
+        var first = from >>> 6;
+        var last = (to - 1) >>> 6;
+        // shifts are mod 64
+        var head = -1L << from;
+        var tail = -1L >>> -to;
+        if (first == last) {
+            return (bits[first] & head & tail) != 0;
+        }
+        if ((bits[first] & head) != 0) {
+            return true;
+        }
+        for (int w = first + 1; w < last; w++) {
+            if (bits[w] != 0) {
+                return true;
+            }
+        }
+        return (bits[last] & tail) != 0;
+    }
+
+    /**
+     * Reusable row: the bytes stay in the mapped buffer, only the symbol mask is built.
+     */
+    static final class RowBits {
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+        private long[] symbols = new long[4];
+
+        /**
+         * Loads the line, or an empty row for null.
+         */
+        RowBits load(Line line) {
+            Arrays.fill(symbols, 0);
+            if (line == null) {
+                length = 0;
+                return this;
+            }
+            buffer = line.buffer();
+            start = line.start();
+            length = line.length();
+            if (symbols.length < words()) {
+                symbols = new long[Math.max(words(), symbols.length * 2)];
+            }
+            for (int j = 0; j < length; j++) {
+                var ch = buffer.get(start + j);
+                if (ch != '.' && (ch < '0' || ch > '9')) {
+                    symbols[j >>> 6] |= 1L << j;
+                }
+            }
+            return this;
+        }
+
+        int words() {
+            return (length >>> 6) + 1;
+        }
+
+        long word(int index) {
+            return index >= 0 && index < symbols.length ? symbols[index] : 0;
+        }
+
+        long partNumbers(long[] adjacency) {
+            long acc = 0;
+            var j = 0;
+            while (j < length) {
+                var ch = buffer.get(start + j);
+                if (ch < '0' || ch > '9') {
+                    j++;
+                    continue;
+                }
+                var from = j;
+                long part = 0;
+                while (j < length && (ch = buffer.get(start + j)) >= '0' && ch <= '9') {
+                    part = Math.addExact(Math.multiplyExact(part, 10), ch - '0');
+                    j++;
+                }
+                if (anySet(adjacency, from, j)) {
+                    acc = Math.addExact(acc, part);
+                }
+            }
+            return acc;
+        }
+    }
+}
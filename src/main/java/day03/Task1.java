@@ -1,39 +1,88 @@
 package day03;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Lines;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.CharBuffer;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
-public class Task1 {
+public class Task1 implements Solver<Lines> {
     public static final String HIGHLIGHT_START = "\033[31;1m";
     public static final String HIGHLIGHT_END = "\033[0m";
     public static final String HIGHLIGHT_PATTERN = Matcher.quoteReplacement(HIGHLIGHT_START) + "$0" + Matcher.quoteReplacement(HIGHLIGHT_END);
     private static final Pattern game = Pattern.compile("Game (\\d+):(.*)");
     private static final Pattern cubeSet = Pattern.compile("(\\d+)\\s(\\w+)");
-    private final String file;
 
-    public Task1(String file) {
-        this.file = file;
+    public enum Mode {
+        /**
+         * Whole schematic as chars, logs the numbers not adjacent to a symbol highlighted, the default.
+         */
+        GRID,
+        /**
+         * Keeps only three rows of the schematic in memory, no highlighted output.
+         */
+        STREAMING,
+        /**
+         * Bands of rows in parallel over symbol bitsets, no highlighted output.
+         */
+        PARALLEL,
+        /**
+         * Queries the {@link SchematicIndex}, no highlighted output.
+         */
+        INDEX
+    }
+
+    private final Mode mode;
+
+    public Task1() {
+        this(Mode.GRID);
+    }
+
+    public Task1(Mode mode) {
+        this.mode = mode;
     }
 
     public static void main(String[] args) {
-        var task = new Task1("input.txt");
-        task.run();
+        Runner.run(new Task1(), "input.txt");
+        Runner.run(new Task1(Mode.STREAMING), "input.txt");
+        Runner.run(new Task1(Mode.PARALLEL), "input.txt");
+        Runner.run(new Task1(Mode.INDEX), "input.txt");
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-                .stream().filter(s -> !s.isBlank()).map(String::toCharArray).toArray(char[][]::new);
+    @Override
+    public Lines parse(Input input) {
+        return input.mapped();
+    }
+
+    /**
+     * Lines are scanned straight from the mapped bytes while solving.
+     */
+    @Override
+    public boolean isSinglePass() {
+        return true;
+    }
 
+    @Override
+    public Object solve(Lines input) {
+        switch (mode) {
+            case STREAMING -> {
+                return RowWindow.sum(input, Task1::partNumbers);
+            }
+            case PARALLEL -> {
+                return SymbolBits.partNumbers(ForkJoinPool.commonPool(), input);
+            }
+            case INDEX -> {
+                return SchematicIndex.build(input).sumOfParts(SchematicIndex.ANY);
+            }
+        }
+        var lines = input.grid();
         // builds map of touched cells
         var map = new char[lines.length][lines[0].length];
         for (int i = 0; i < lines.length; i++) {
@@ -63,14 +112,14 @@ public class Task1 {
         var output = new ArrayList<String>();
         for (int i = 0; i < lines.length; i++) {
             var line = lines[i];
-            log.info("{}", CharBuffer.wrap(line));
+            log.debug("{}", CharBuffer.wrap(line));
             var matcher = num.matcher(CharBuffer.wrap(line));
             sb.setLength(0);
             sb.append("%04d: ".formatted(i + 1));
             while (matcher.find()) {
                 if (check(map[i], matcher.start(), matcher.end())) {
                     var part = Integer.parseInt(matcher.group());
-                    log.info("Line {}, part# {} from {} to {}", i, part, matcher.start(), matcher.end());
+                    log.debug("Line {}, part# {} from {} to {}", i, part, matcher.start(), matcher.end());
                     acc += part;
                 } else {
                     // highlighting in output
@@ -83,7 +132,34 @@ public class Task1 {
 
         log.info(HIGHLIGHT_START + "Highlighted" + HIGHLIGHT_END + " numbers are not adjacent to a symbol");
         output.forEach(log::warn);
-        log.info("Result: {}", acc);
+        return acc;
+    }
+
+    /**
+     * Sum of the numbers in the current row adjacent to a symbol in any of the three rows.
+     */
+    private static long partNumbers(RowWindow.Row prev, RowWindow.Row current, RowWindow.Row next, int index) {
+        long acc = 0;
+        var j = 0;
+        while (j < current.length()) {
+            if (!current.isDigit(j)) {
+                j++;
+                continue;
+            }
+            var start = j;
+            long part = 0;
+            while (current.isDigit(j)) {
+                part = Math.addExact(Math.multiplyExact(part, 10), current.at(j++) - '0');
+            }
+            for (int col = start - 1; col <= j; col++) {
+                if (prev.isSymbol(col) || current.isSymbol(col) || next.isSymbol(col)) {
+                    log.debug("Line {}, part# {} from {} to {}", index, part, start, j);
+                    acc = Math.addExact(acc, part);
+                    break;
+                }
+            }
+        }
+        return acc;
     }
 
     private boolean check(char[] map, int start, int end) {
@@ -1,119 +1,187 @@
 package day03;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Lines;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.CharBuffer;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Slf4j
-public class Task2 {
+public class Task2 implements Solver<Lines> {
     public static final String HIGHLIGHT_START = "\033[31;1m";
     public static final String HIGHLIGHT_END = "\033[0m";
     public static final String HIGHLIGHT_PATTERN = Matcher.quoteReplacement(HIGHLIGHT_START) + "$0" + Matcher.quoteReplacement(HIGHLIGHT_END);
     private static final Pattern game = Pattern.compile("Game (\\d+):(.*)");
     private static final Pattern cubeSet = Pattern.compile("(\\d+)\\s(\\w+)");
-    private final String file;
 
-    public Task2(String file) {
-        this.file = file;
+    public enum Mode {
+        /**
+         * Whole schematic, gears aggregated in flat arrays, the default.
+         */
+        GRID,
+        /**
+         * Same as GRID, also logs the schematic with the gear ratios highlighted.
+         */
+        HIGHLIGHT,
+        /**
+         * Keeps only three rows of the schematic in memory.
+         */
+        STREAMING,
+        /**
+         * Queries the {@link SchematicIndex}.
+         */
+        INDEX
+    }
+
+    private final Mode mode;
+
+    public Task2() {
+        this(Mode.GRID);
+    }
+
+    public Task2(Mode mode) {
+        this.mode = mode;
     }
 
     public static void main(String[] args) {
-        var task = new Task2("input.txt");
-        task.run();
+        Runner.run(new Task2(Mode.HIGHLIGHT), "input.txt");
+        Runner.run(new Task2(), "input.txt");
+        Runner.run(new Task2(Mode.STREAMING), "input.txt");
+        Runner.run(new Task2(Mode.INDEX), "input.txt");
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-                .stream().filter(s -> !s.isBlank()).map(String::toCharArray).toArray(char[][]::new);
+    @Override
+    public Lines parse(Input input) {
+        return input.mapped();
+    }
 
-        // builds map of gears
-        var map = new int[lines.length][lines[0].length];
+    /**
+     * Lines are scanned straight from the mapped bytes while solving.
+     */
+    @Override
+    public boolean isSinglePass() {
+        return true;
+    }
+
+    @Override
+    public Object solve(Lines input) {
+        if (mode == Mode.STREAMING) {
+            return RowWindow.sum(input, Task2::gearRatios);
+        }
+        if (mode == Mode.INDEX) {
+            return SchematicIndex.build(input).sumOfProducts(ch -> ch == '*', 2);
+        }
+        var lines = input.grid();
+        // builds map of gears, ids start with 0, -1 is not a gear
+        var map = new int[lines.length][];
         var gear = 0;
         for (int i = 0; i < lines.length; i++) {
             var line = lines[i];
+            map[i] = new int[line.length];
             for (int j = 0; j < line.length; j++) {
-                if (map[i][j] == 0) { // not yet marked
-                    map[i][j] = -1; // not a gear
-                }
-                var ch = line[j];
-                if (ch == '*') {
-                    // gear, mark surroundings with the gear number
-                    gear++;
-                    set(map, gear, i - 1, j - 1);
-                    set(map, gear, i, j - 1);
-                    set(map, gear, i + 1, j - 1);
-                    set(map, gear, i - 1, j);
-                    set(map, gear, i + 1, j);
-                    set(map, gear, i - 1, j + 1);
-                    set(map, gear, i, j + 1);
-                    set(map, gear, i + 1, j + 1);
-                }
+                map[i][j] = line[j] == '*' ? gear++ : -1;
             }
         }
 
-        var gears = new HashMap<Integer, List<Integer>>();
+        // numbers adjacent to every gear and the product of them
+        var counts = new int[gear];
+        var products = new long[gear];
+        Arrays.fill(products, 1);
+        var highlight = mode == Mode.HIGHLIGHT;
         var num = Pattern.compile("\\d+");
         var sb = new StringBuilder();
-        var output = new ArrayList<String>();
         for (int i = 0; i < lines.length; i++) {
             var line = lines[i];
-            log.info("{}", CharBuffer.wrap(line));
             var matcher = num.matcher(CharBuffer.wrap(line));
-            sb.setLength(0);
-            sb.append("%04d: ".formatted(i + 1));
+            if (highlight) {
+                log.info("{}", CharBuffer.wrap(line));
+                sb.setLength(0);
+                sb.append("%04d: ".formatted(i + 1));
+            }
             while (matcher.find()) {
-                gear = check_gear(map[i], matcher.start(), matcher.end());
-                if (gear != -1) {
-                    var ratio = Integer.parseInt(matcher.group());
-                    log.info("Line {}, gear# {}, ratio {} from {} to {}", i, gear, ratio, matcher.start(), matcher.end());
-                    // list, since we need to only take into account gears with 2 ratios
-                    gears.computeIfAbsent(gear, k -> new ArrayList<>()).add(ratio);
-                    // highlighting in output
+                // every gear around the number, a gear is a single cell so none is seen twice
+                var found = false;
+                for (int row = Math.max(0, i - 1); row <= Math.min(lines.length - 1, i + 1); row++) {
+                    var to = Math.min(map[row].length, matcher.end() + 1);
+                    for (int col = Math.max(0, matcher.start() - 1); col < to; col++) {
+                        gear = map[row][col];
+                        if (gear == -1) {
+                            continue;
+                        }
+                        found = true;
+                        var ratio = Long.parseLong(matcher.group());
+                        log.debug("Line {}, gear# {}, ratio {} from {} to {}", i, gear, ratio, matcher.start(), matcher.end());
+                        // the product only matters for the gears with 2 numbers, do not overflow on the others
+                        if (++counts[gear] <= 2) {
+                            products[gear] = Math.multiplyExact(products[gear], ratio);
+                        }
+                    }
+                }
+                if (found && highlight) {
                     matcher.appendReplacement(sb, HIGHLIGHT_PATTERN);
                 }
             }
-            matcher.appendTail(sb);
-            output.add(sb.toString());
+            if (highlight) {
+                matcher.appendTail(sb);
+                log.warn("{}", sb);
+            }
+        }
+        if (highlight) {
+            log.info(HIGHLIGHT_START + "Highlighted" + HIGHLIGHT_END + " numbers are gear ratios");
         }
 
-        log.info(HIGHLIGHT_START + "Highlighted" + HIGHLIGHT_END + " numbers are gear ratios");
-        output.forEach(log::warn);
-
-        // computing the result
-        var result = gears.values().stream()
-                .filter(ratios -> ratios.size() == 2)
-                .map(l -> l.stream().reduce(1, (a, b) -> a * b))
-                .reduce(0, Integer::sum);
-
-        log.info("Result: {}", result);
-    }
-
-    private int check_gear(int[] map, int start, int end) {
-        for (int i = start; i < end; i++) {
-            if (map[i] != -1) {
-                return map[i];
+        // only the gears with exactly 2 numbers
+        long result = 0;
+        for (int g = 0; g < counts.length; g++) {
+            if (counts[g] == 2) {
+                result = Math.addExact(result, products[g]);
             }
         }
-        return -1;
+        return result;
     }
 
-    private void set(int[][] map, int gear, int row, int col) {
-        if (row >= 0 && row < map.length) {
-            var r = map[row];
-            if (col >= 0 && col < r.length) {
-                map[row][col] = gear;
+    /**
+     * Sum of the ratios of the gears in the current row: a {@code *} with exactly two adjacent numbers.
+     */
+    private static long gearRatios(RowWindow.Row prev, RowWindow.Row current, RowWindow.Row next, int index) {
+        long acc = 0;
+        for (int j = 0; j < current.length(); j++) {
+            if (current.at(j) != '*') {
+                continue;
+            }
+            var count = 0;
+            long ratio = 1;
+            for (int r = 0; r < 3; r++) {
+                var row = r == 0 ? prev : r == 1 ? current : next;
+                if (row.isDigit(j)) {
+                    // a single number covers the column above/below
+                    ratio = times(ratio, ++count, row.numberAt(j));
+                    continue;
+                }
+                if (row.isDigit(j - 1)) {
+                    ratio = times(ratio, ++count, row.numberAt(j - 1));
+                }
+                if (row.isDigit(j + 1)) {
+                    ratio = times(ratio, ++count, row.numberAt(j + 1));
+                }
+            }
+            if (count == 2) {
+                log.debug("Line {}, gear at {}, ratio {}", index, j, ratio);
+                acc = Math.addExact(acc, ratio);
             }
         }
+        return acc;
     }
 
+    /**
+     * The ratio only matters for the gears with 2 numbers, do not overflow on the others.
+     */
+    private static long times(long ratio, int count, long number) {
+        return count <= 2 ? Math.multiplyExact(ratio, number) : ratio;
+    }
 }
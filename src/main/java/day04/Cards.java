@@ -0,0 +1,82 @@
+package day04;
+
+import common.ByteScanner;
+import common.Line;
+
+/**
+ * Scorer for {@code Card 1: 41 48 83 86 17 | 83 86  6 31 17  9 48 53}, walks the bytes once.
+ * Card numbers are below 128, so each side is a 128-bit mask in two longs and the matches are
+ * the bit count of the intersection. No allocations.
+ */
+final class Cards {
+    static final int MAX_NUMBER = 127;
+    /**
+     * The most matches whose points fit into a long.
+     */
+    static final int MAX_MATCHES = Long.SIZE - 1;
+
+    private Cards() {
+    }
+
+    /**
+     * Number of your numbers which are winning.
+     */
+    static int matches(Line line) {
+        var buffer = line.buffer();
+        var end = line.end();
+        var i = line.start();
+        while (i < end && buffer.get(i) != ':') { // "Card 1"
+            i++;
+        }
+        if (i == end) {
+            throw new RuntimeException("incorrect line: " + line);
+        }
+        i++;
+
+        long winningLo = 0, winningHi = 0;
+        long yoursLo = 0, yoursHi = 0;
+        var yours = false;
+        while (i < end) {
+            var ch = buffer.get(i);
+            if (ch == '|') {
+                if (yours) {
+                    throw new RuntimeException("incorrect line: " + line);
+                }
+                yours = true;
+                i++;
+                continue;
+            }
+            if (!ByteScanner.isDigit(ch)) { // spaces
+                i++;
+                continue;
+            }
+            var number = 0;
+            while (i < end && ByteScanner.isDigit(buffer.get(i))) {
+                number = number * 10 + buffer.get(i++) - '0';
+                if (number > MAX_NUMBER) {
+                    throw new RuntimeException("incorrect line: " + line);
+                }
+            }
+            // shifts are mod 64, the half is chosen by the 7th bit
+            var bit = 1L << number;
+            if (yours) {
+                yoursLo |= number < 64 ? bit : 0;
+                yoursHi |= number < 64 ? 0 : bit;
+            } else {
+                winningLo |= number < 64 ? bit : 0;
+                winningHi |= number < 64 ? 0 : bit;
+            }
+        }
+        if (!yours) {
+            throw new RuntimeException("incorrect line: " + line);
+        }
+        return Long.bitCount(winningLo & yoursLo) + Long.bitCount(winningHi & yoursHi);
+    }
+
+    static long points(int matches) {
+        if (matches < 0 || matches > MAX_MATCHES) {
+            throw new RuntimeException("incorrect matches: " + matches);
+        }
+        return matches == 0 ? 0 : 1L << matches - 1;
+    }
+}
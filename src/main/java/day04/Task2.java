@@ -1,56 +1,135 @@
 package day04;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Line;
+import common.Lines;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.regex.Pattern;
 
 @Slf4j
-public class Task2 {
-    private static final Pattern card = Pattern.compile("(Card\\s+\\d+):([\\d\\s]+)\\|([\\d\\s]+)");
-    private final String file;
+public class Task2 implements Solver<Lines> {
+    public enum Mode {
+        /**
+         * Matches of all the cards first, then the copies are spread by a difference array, the default.
+         */
+        ARRAY,
+        /**
+         * Cards are scored while read, only a ring of the pending copies is kept.
+         */
+        STREAMING
+    }
+
+    /**
+     * A card wins at most {@link Cards#MAX_NUMBER} + 1 following cards, so the pending copies fit into the ring.
+     */
+    static final int WINDOW = Integer.highestOneBit(Cards.MAX_NUMBER + 1) << 1;
+
+    private final Mode mode;
+
+    public Task2() {
+        this(Mode.ARRAY);
+    }
 
-    public Task2(String file) {
-        this.file = file;
+    public Task2(Mode mode) {
+        this.mode = mode;
     }
 
     public static void main(String[] args) {
-        new Task2("input_small.txt").run();
-        new Task2("input.txt").run();
-    }
-
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-                .stream().filter(s -> !s.isBlank()).toList();
-
-        int acc = 0;
-        var counters = new int[lines.size()];
-        Arrays.fill(counters, 1);
-        for (int i = 0; i < lines.size(); i++) {
-            var line = lines.get(i);
-            var g = card.matcher(line);
-            if (!g.matches()) {
-                throw new RuntimeException("incorrect line: " + line);
+        Runner.run(new Task2(), "input_small.txt", "input.txt");
+        Runner.run(new Task2(Mode.STREAMING), "input_small.txt", "input.txt");
+    }
+
+    @Override
+    public Lines parse(Input input) {
+        return input.mapped();
+    }
+
+    /**
+     * Lines are scanned straight from the mapped bytes while solving.
+     */
+    @Override
+    public boolean isSinglePass() {
+        return true;
+    }
+
+    @Override
+    public Object solve(Lines lines) {
+        return switch (mode) {
+            case ARRAY -> cascade(matches(lines));
+            case STREAMING -> streaming(lines);
+        };
+    }
+
+    /**
+     * Copies won by a card are added to the range of the following cards as two marks of a difference array,
+     * the running sum of the marks gives the won copies of the current card. O(n) regardless of the matches.
+     */
+    static long cascade(int[] matches) {
+        long acc = 0;
+        var diff = new long[matches.length + 1];
+        long won = 0;
+        for (int i = 0; i < matches.length; i++) {
+            won = Math.addExact(won, diff[i]);
+            var nCopies = won + 1;
+            acc = Math.addExact(acc, nCopies);
+            // copies past the last card are not there
+            diff[i + 1] = Math.addExact(diff[i + 1], nCopies);
+            var end = Math.min(matches.length, i + 1 + matches[i]);
+            diff[end] = Math.subtractExact(diff[end], nCopies);
+            log.debug("Card {}: {} copies", i + 1, nCopies);
+        }
+        return acc;
+    }
+
+    /**
+     * Same as {@link #cascade(int[])}, with the difference array folded into a ring of {@link #WINDOW} marks.
+     * Marks past the last card are never read.
+     */
+    private static long streaming(Lines lines) {
+        var ring = new long[WINDOW];
+        long acc = 0;
+        long won = 0;
+        long cards = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            var i = (int) (cards++ & (WINDOW - 1));
+            won = Math.addExact(won, ring[i]);
+            ring[i] = 0;
+            var nCopies = won + 1;
+            acc = Math.addExact(acc, nCopies);
+            var next = (i + 1) & (WINDOW - 1);
+            var end = (i + 1 + Cards.matches(line)) & (WINDOW - 1);
+            ring[next] = Math.addExact(ring[next], nCopies);
+            ring[end] = Math.subtractExact(ring[end], nCopies);
+        }
+        return acc;
+    }
+
+    /**
+     * Matches of every card, in order.
+     */
+    private static int[] matches(Lines lines) {
+        var result = new int[256];
+        var size = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
             }
-            var winningNumbers = Set.of(g.group(2).trim().split("\\s+"));
-            var yourNumbers = new HashSet<>(Arrays.asList(g.group(3).trim().split("\\s+")));
-            yourNumbers.retainAll(winningNumbers);
-
-            var nCopies = counters[i];
-            acc += nCopies;
-            for (int j = i + 1; j < i + 1 + yourNumbers.size(); j++) {
-                counters[j] += nCopies;
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
             }
-            log.warn("{}: {} copies", g.group(1), nCopies);
+            result[size++] = Cards.matches(line);
         }
-        log.info("Result from '{}': {}", file, acc);
+        return Arrays.copyOf(result, size);
     }
 
 }
@@ -0,0 +1,253 @@
+package day05;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Piecewise linear function over the non-negative keys: a key between {@code starts[i]} and {@code starts[i + 1]}
+ * maps to {@code key + offsets[i]}. The first piece starts at 0 and the last one is unbounded, keys not covered
+ * by any line of an almanac map are pieces with 0 offset. Adjacent pieces with the same offset are merged.
+ * <p>
+ * Since a composition of such functions is again piecewise linear, the whole chain of maps is composed once
+ * and a seed is then resolved by a single binary search, whatever the length of the chain.
+ */
+final class PiecewiseMap {
+    /**
+     * Keys per task of a parallel batch.
+     */
+    static final int BATCH = 1 << 16;
+
+    private static final PiecewiseMap IDENTITY = new PiecewiseMap(new long[]{0}, new long[]{0}, 1);
+
+    private final long[] starts;
+    private final long[] offsets;
+
+    private PiecewiseMap(long[] starts, long[] offsets, int size) {
+        this.starts = size == starts.length ? starts : Arrays.copyOf(starts, size);
+        this.offsets = size == offsets.length ? offsets : Arrays.copyOf(offsets, size);
+    }
+
+    static PiecewiseMap identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * Pieces of a single map, the lines are sorted and cover the keys from 0 without gaps.
+     */
+    static PiecewiseMap of(Task1.IntervalMap map) {
+        var builder = new Builder(map.getLines().size());
+        for (var line : map.getLines()) {
+            builder.add(line.src(), line.dst() - line.src());
+        }
+        return builder.build();
+    }
+
+    /**
+     * This function followed by the next one: every piece is split at the keys mapped onto the breakpoints
+     * of the next function, the offsets of the parts add up.
+     */
+    PiecewiseMap andThen(PiecewiseMap next) {
+        var builder = new Builder(size() + next.size());
+        for (int i = 0; i < size(); i++) {
+            var offset = offsets[i];
+            var imageStart = starts[i] + offset;
+            var imageEnd = i + 1 < size() ? starts[i + 1] + offset : Long.MAX_VALUE;
+            var j = next.pieceOf(imageStart);
+            builder.add(starts[i], offset + next.offsets[j]);
+            for (j++; j < next.size() && next.starts[j] < imageEnd; j++) {
+                builder.add(next.starts[j] - offset, offset + next.offsets[j]);
+            }
+        }
+        return builder.build();
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    long start(int piece) {
+        return starts[piece];
+    }
+
+    /**
+     * Start of the next piece, {@link Long#MAX_VALUE} for the last one.
+     */
+    long end(int piece) {
+        return piece + 1 < size() ? starts[piece + 1] : Long.MAX_VALUE;
+    }
+
+    long offset(int piece) {
+        return offsets[piece];
+    }
+
+    long get(long key) {
+        return key + offsets[pieceOf(key)];
+    }
+
+    /**
+     * Images of a batch of keys, {@code result[i]} is the image of {@code keys[i]}. The keys are sorted once,
+     * then swept against the pieces in a single merge walk, large batches in parallel. Every key then finds
+     * its image by a binary search in the sorted keys, equal keys have equal images.
+     */
+    long[] getAll(ForkJoinPool pool, long[] keys) {
+        var sorted = keys.clone();
+        Arrays.parallelSort(sorted);
+        var images = new long[sorted.length];
+        var result = new long[keys.length];
+        if (sorted.length <= BATCH) {
+            sweep(sorted, 0, sorted.length, images);
+            lookup(keys, sorted, images, 0, keys.length, result);
+        } else {
+            pool.invoke(new SweepTask(sorted, 0, sorted.length, images));
+            pool.invoke(new LookupTask(keys, sorted, images, 0, keys.length, result));
+        }
+        return result;
+    }
+
+    /**
+     * Images of the keys between {@code from} and {@code to}, found among the images of the sorted keys.
+     */
+    private static void lookup(long[] keys, long[] sorted, long[] images, int from, int to, long[] result) {
+        for (int i = from; i < to; i++) {
+            result[i] = images[Arrays.binarySearch(sorted, keys[i])];
+        }
+    }
+
+    /**
+     * Images of the sorted keys between {@code from} and {@code to}, the piece only moves forward.
+     */
+    void sweep(long[] sortedKeys, int from, int to, long[] result) {
+        if (from == to) {
+            return;
+        }
+        var piece = pieceOf(sortedKeys[from]);
+        for (int i = from; i < to; i++) {
+            var key = sortedKeys[i];
+            while (piece + 1 < size() && starts[piece + 1] <= key) {
+                piece++;
+            }
+            result[i] = key + offsets[piece];
+        }
+    }
+
+    /**
+     * Minimum of the function over the keys from {@code start}, walking the pieces the range overlaps.
+     */
+    long min(long start, long length) {
+        var end = start + length;
+        var min = Long.MAX_VALUE;
+        for (int i = pieceOf(start); i < size() && starts[i] < end; i++) {
+            min = Math.min(min, Math.max(start, starts[i]) + offsets[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Index of the piece covering the key.
+     */
+    int pieceOf(long key) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key " + key);
+        }
+        var index = Arrays.binarySearch(starts, key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (int i = 0; i < size(); i++) {
+            sb.append(i == 0 ? "" : ", ").append(starts[i]).append(offsets[i] < 0 ? "" : "+").append(offsets[i]);
+        }
+        return sb.toString();
+    }
+
+    private class SweepTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long[] keys;
+        private final int from;
+        private final int to;
+        private final long[] result;
+
+        SweepTask(long[] keys, int from, int to, long[] result) {
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH) {
+                sweep(keys, from, to, result);
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            invokeAll(new SweepTask(keys, from, mid, result), new SweepTask(keys, mid, to, result));
+        }
+    }
+
+    private static class LookupTask extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long[] keys;
+        private final long[] sorted;
+        private final long[] images;
+        private final int from;
+        private final int to;
+        private final long[] result;
+
+        LookupTask(long[] keys, long[] sorted, long[] images, int from, int to, long[] result) {
+            this.keys = keys;
+            this.sorted = sorted;
+            this.images = images;
+            this.from = from;
+            this.to = to;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH) {
+                lookup(keys, sorted, images, from, to, result);
+                return;
+            }
+            var mid = (from + to) >>> 1;
+            invokeAll(new LookupTask(keys, sorted, images, from, mid, result),
+                      new LookupTask(keys, sorted, images, mid, to, result));
+        }
+    }
+
+    private static final class Builder {
+        private long[] starts;
+        private long[] offsets;
+        private int size;
+
+        Builder(int capacity) {
+            starts = new long[Math.max(1, capacity)];
+            offsets = new long[starts.length];
+        }
+
+        void add(long start, long offset) {
+            if (size > 0 && offsets[size - 1] == offset) {
+                return; // continues the previous piece
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            starts[size] = start;
+            offsets[size] = offset;
+            size++;
+        }
+
+        PiecewiseMap build() {
+            return new PiecewiseMap(starts, offsets, size);
+        }
+    }
+}
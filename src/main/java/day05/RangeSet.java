@@ -0,0 +1,176 @@
+package day05;
+
+import java.util.Arrays;
+
+/**
+ * Set of key ranges as sorted, disjoint {@code starts}/{@code lengths} arrays, reused between the stages.
+ * A stage is mapped by {@link #mapInto}: the ranges and the pieces of the map are both sorted, so a single merge
+ * walk splits every range at the breakpoints and shifts the parts, the result is then sorted and coalesced.
+ * Once the arrays are big enough, nothing is allocated.
+ */
+final class RangeSet {
+    private long[] starts;
+    private long[] lengths;
+    private int size;
+    // merge sort buffers
+    private long[] spareStarts = new long[0];
+    private long[] spareLengths = new long[0];
+
+    RangeSet(int capacity) {
+        starts = new long[Math.max(1, capacity)];
+        lengths = new long[starts.length];
+    }
+
+    /**
+     * Ranges from the {@code start, length} pairs.
+     */
+    static RangeSet ofPairs(long[] pairs) {
+        var result = new RangeSet(pairs.length / 2);
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            result.add(pairs[i], pairs[i + 1]);
+        }
+        result.normalize();
+        return result;
+    }
+
+    /**
+     * Single keys, as ranges of length 1.
+     */
+    static RangeSet ofKeys(long[] keys) {
+        var result = new RangeSet(keys.length);
+        for (long key : keys) {
+            result.add(key, 1);
+        }
+        result.normalize();
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long min() {
+        if (size == 0) {
+            throw new IllegalStateException("Empty range set");
+        }
+        return starts[0];
+    }
+
+    long totalLength() {
+        long acc = 0;
+        for (int i = 0; i < size; i++) {
+            acc += lengths[i];
+        }
+        return acc;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(long start, long length) {
+        if (length <= 0) {
+            return;
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        starts[size] = start;
+        lengths[size] = length;
+        size++;
+    }
+
+    /**
+     * Images of the ranges under the map, written to {@code out}, which is cleared first.
+     */
+    void mapInto(PiecewiseMap map, RangeSet out) {
+        out.clear();
+        if (size == 0) {
+            return;
+        }
+        // ranges are sorted, so the piece only moves forward
+        var piece = map.pieceOf(starts[0]);
+        for (int i = 0; i < size; i++) {
+            var position = starts[i];
+            var end = position + lengths[i];
+            while (map.end(piece) <= position) {
+                piece++;
+            }
+            while (position < end) {
+                var partEnd = Math.min(end, map.end(piece));
+                out.add(position + map.offset(piece), partEnd - position);
+                position = partEnd;
+                if (position == map.end(piece)) {
+                    piece++;
+                }
+            }
+        }
+        out.normalize();
+    }
+
+    /**
+     * Sorts by start and merges the overlapping and adjacent ranges.
+     */
+    void normalize() {
+        sort();
+        var last = -1;
+        for (int i = 0; i < size; i++) {
+            if (last >= 0 && starts[i] <= starts[last] + lengths[last]) {
+                lengths[last] = Math.max(lengths[last], starts[i] + lengths[i] - starts[last]);
+            } else {
+                last++;
+                starts[last] = starts[i];
+                lengths[last] = lengths[i];
+            }
+        }
+        size = last + 1;
+    }
+
+    /**
+     * Natural merge sort of both arrays by start. Mapping splits sorted ranges into at most one sorted run
+     * per piece of the map, so a stage needs only a few passes, each merging the neighbouring runs.
+     */
+    private void sort() {
+        while (nextRun(0) < size) {
+            if (spareStarts.length < size) {
+                spareStarts = new long[starts.length];
+                spareLengths = new long[starts.length];
+            }
+            var from = 0;
+            while (from < size) {
+                var mid = nextRun(from);
+                var to = mid < size ? nextRun(mid) : size;
+                merge(from, mid, to);
+                from = to;
+            }
+            var merged = spareStarts;
+            spareStarts = starts;
+            starts = merged;
+            merged = spareLengths;
+            spareLengths = lengths;
+            lengths = merged;
+        }
+    }
+
+    /**
+     * End of the sorted run from the index.
+     */
+    private int nextRun(int from) {
+        var i = from + 1;
+        while (i < size && starts[i - 1] <= starts[i]) {
+            i++;
+        }
+        return Math.min(i, size);
+    }
+
+    private void merge(int from, int mid, int to) {
+        int i = from, j = mid;
+        for (int k = from; k < to; k++) {
+            var left = j == to || i < mid && starts[i] <= starts[j];
+            var index = left ? i++ : j++;
+            spareStarts[k] = starts[index];
+            spareLengths[k] = lengths[index];
+        }
+    }
+}
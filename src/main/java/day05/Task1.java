@@ -1,52 +1,96 @@
 package day05;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Parts;
+import common.Runner;
+import common.Solver;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 @Slf4j
-public class Task1 {
+public class Task1 implements Solver<Task1.Almanac> {
     private static final Pattern MAP_HEADER = Pattern.compile("(\\w+)-to-(\\w+) map:");
     private static final Pattern MAP_LINE = Pattern.compile("(\\d+)\\s+(\\d+)\\s+(\\d+)");
     private static final Pattern SEED = Pattern.compile("\\d+");
 
-    private final String file;
+    public enum Mode {
+        /**
+         * Seeds and seed ranges go through the maps one by one, logging every stage.
+         */
+        STEPWISE,
+        /**
+         * The maps are composed into a single {@link PiecewiseMap} first, the default.
+         */
+        COMPOSED,
+        /**
+         * Seeds and seed ranges go through the maps stage by stage as {@link RangeSet}s.
+         */
+        RANGES,
+        /**
+         * Same as COMPOSED, then part 2 is brute-forced in parallel seed by seed through the maps one by one
+         * and has to agree. Only for the inputs with not too many seeds in the ranges.
+         */
+        VERIFY
+    }
+
+    private final Mode mode;
+
+    public Task1() {
+        this(Mode.COMPOSED);
+    }
 
-    public Task1(String file) {
-        this.file = file;
+    public Task1(Mode mode) {
+        this.mode = mode;
     }
 
     public static void main(String[] args) {
-        new Task1("input_small.txt").run();
-        new Task1("input.txt").run();
+        Runner.run(new Task1(), "input_small.txt", "input.txt");
+        Runner.run(new Task1(Mode.STEPWISE), "input_small.txt", "input.txt");
+        Runner.run(new Task1(Mode.RANGES), "input_small.txt", "input.txt");
+        Runner.run(new Task1(Mode.VERIFY), "input_small.txt");
     }
 
     private static long totalLength(List<Range> seedRanges) {
         return seedRanges.stream().mapToLong(Range::length).sum();
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-          .stream().toList();
-
-        var iterator = lines.listIterator();
+    @Override
+    public Almanac parse(Input input) {
+        var iterator = input.lines().listIterator();
         var seeds = parseSeeds(iterator);
-        var seedRanges = makeRanges(seeds);
         consumeEmptyLines(iterator);
         var maps = new ArrayList<IntervalMap>();
         while (iterator.hasNext()) {
             maps.add(parseMap(iterator));
             consumeEmptyLines(iterator);
         }
+        return new Almanac(seeds, maps);
+    }
+
+    @Override
+    public Object solve(Almanac almanac) {
+        if (mode == Mode.COMPOSED) {
+            return composed(almanac);
+        }
+        if (mode == Mode.VERIFY) {
+            return verified(almanac);
+        }
+        if (mode == Mode.RANGES) {
+            var stages = almanac.maps().stream().map(PiecewiseMap::of).toList();
+            return new Parts(lowest(RangeSet.ofKeys(almanac.seeds()), stages),
+                             lowest(RangeSet.ofPairs(almanac.seeds()), stages));
+        }
+        var seeds = almanac.seeds().clone(); // mapped in place
+        var maps = almanac.maps();
+        var seedRanges = makeRanges(seeds);
 
         log.info("Seeds: {}", seeds);
         for (IntervalMap map : maps) {
@@ -55,7 +99,6 @@ public class Task1 {
         }
 
         var result = Arrays.stream(seeds).min().getAsLong();
-        log.info("Part 1 result from '{}': {}", file, result);
 
         log.info("Initial ranges: {}", seedRanges.size());
         var totalLength = totalLength(seedRanges);
@@ -69,7 +112,61 @@ public class Task1 {
         }
 
         var result2 = seedRanges.stream().mapToLong(Range::src).min().getAsLong();
-        log.info("Part 2 result from '{}': {}", file, result2);
+        return new Parts(result, result2);
+    }
+
+    private Parts composed(Almanac almanac) {
+        var chain = almanac.maps().stream()
+          .map(PiecewiseMap::of)
+          .reduce(PiecewiseMap.identity(), PiecewiseMap::andThen);
+        log.info("Composed {} maps into {} pieces", almanac.maps().size(), chain.size());
+
+        var seeds = almanac.seeds();
+        var result = Arrays.stream(chain.getAll(ForkJoinPool.commonPool(), seeds)).min().orElseThrow();
+        var result2 = Long.MAX_VALUE;
+        for (int i = 0; i + 1 < seeds.length; i += 2) {
+            result2 = Math.min(result2, chain.min(seeds[i], seeds[i + 1]));
+        }
+        return new Parts(result, result2);
+    }
+
+    private Parts verified(Almanac almanac) {
+        var parts = composed(almanac);
+        var seeds = almanac.seeds();
+        var maps = almanac.maps();
+        var bruteForce = ForkJoinPool.commonPool().submit(() -> IntStream.range(0, seeds.length / 2)
+          .parallel()
+          .mapToLong(i -> LongStream.range(seeds[i * 2], seeds[i * 2] + seeds[i * 2 + 1])
+            .parallel()
+            .map(seed -> {
+                for (IntervalMap map : maps) {
+                    seed = map.get(seed);
+                }
+                return seed;
+            })
+            .min()
+            .orElse(Long.MAX_VALUE))
+          .min()
+          .orElseThrow()).join();
+        if (!Long.valueOf(bruteForce).equals(parts.part2())) {
+            throw new IllegalStateException("Part 2: composed %s, brute force %d".formatted(parts.part2(), bruteForce));
+        }
+        log.info("Part 2 verified by brute force: {}", bruteForce);
+        return parts;
+    }
+
+    /**
+     * Lowest key after all the stages, two range sets take turns as the input and the output.
+     */
+    private static long lowest(RangeSet ranges, List<PiecewiseMap> stages) {
+        var spare = new RangeSet(ranges.size());
+        for (var stage : stages) {
+            ranges.mapInto(stage, spare);
+            var mapped = spare;
+            spare = ranges;
+            ranges = mapped;
+        }
+        return ranges.min();
     }
 
     private List<Range> makeRanges(long[] seeds) {
@@ -140,13 +237,18 @@ public class Task1 {
         List<Range> lines = new ArrayList<>();
 
         public long get(long key) {
-            // should sort the lines and use binary search?
-            for (Range line : lines) {
-                if (line.covers(key)) {
-                    return line.map(key);
+            // lines are sorted by src, the last one starting not after the key is the only one to cover it
+            int lo = 0, hi = lines.size() - 1;
+            while (lo < hi) {
+                var mid = (lo + hi + 1) >>> 1;
+                if (lines.get(mid).src <= key) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
                 }
             }
-            return key;
+            var line = lines.get(lo);
+            return line.covers(key) ? line.map(key) : key;
         }
 
         public void apply(long[] seeds) {
@@ -244,4 +346,7 @@ public class Task1 {
 
     record MappedRange(Range range, Range reminder) {
     }
+
+    record Almanac(long[] seeds, List<IntervalMap> maps) {
+    }
 }
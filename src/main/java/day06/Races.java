@@ -0,0 +1,125 @@
+package day06;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Exact winning options of a race: holding the button {@code h} ms gives {@code h * (time - h)}, which has to beat
+ * the distance. The roots of {@code h^2 - time * h + distance} are estimated with an integer square root
+ * and corrected by checking the neighbours, no floating point is involved. Options are symmetric around
+ * {@code time / 2}, so only the lowest winning hold is searched.
+ * <p>
+ * Values fitting into a long take the long path, the rest is solved with {@link BigInteger}.
+ */
+final class Races {
+    /**
+     * The largest time whose square fits into a long.
+     */
+    static final long MAX_TIME = 3_037_000_499L;
+    /**
+     * Batches bigger than that are solved in parallel.
+     */
+    static final int PARALLEL_BATCH = 1 << 12;
+
+    private static final BigInteger LONG_MAX_TIME = BigInteger.valueOf(MAX_TIME);
+    private static final BigInteger LONG_MAX_DISTANCE = BigInteger.valueOf(Long.MAX_VALUE / 4);
+
+    private Races() {
+    }
+
+    static long winningOptions(long time, long distance) {
+        if (time < 0 || distance < 0) {
+            throw new IllegalArgumentException("Negative race (%d, %d)".formatted(time, distance));
+        }
+        if (time > MAX_TIME || distance > Long.MAX_VALUE / 4) {
+            return winningOptions(BigInteger.valueOf(time), BigInteger.valueOf(distance)).longValueExact();
+        }
+        var discriminant = time * time - 4 * distance;
+        if (discriminant <= 0) {
+            return 0; // at most touches the distance
+        }
+        var hold = (time - sqrt(discriminant)) / 2;
+        while (hold > 0 && hold * (time - hold) > distance) {
+            hold--;
+        }
+        // the roots may be too close to have a whole hold in between
+        var half = time / 2;
+        while (hold <= half && hold * (time - hold) <= distance) {
+            hold++;
+        }
+        return hold > half ? 0 : time - 2 * hold + 1;
+    }
+
+    static BigInteger winningOptions(BigInteger time, BigInteger distance) {
+        if (time.signum() < 0 || distance.signum() < 0) {
+            throw new IllegalArgumentException("Negative race (%s, %s)".formatted(time, distance));
+        }
+        if (time.compareTo(LONG_MAX_TIME) <= 0 && distance.compareTo(LONG_MAX_DISTANCE) <= 0) {
+            return BigInteger.valueOf(winningOptions(time.longValue(), distance.longValue()));
+        }
+        var discriminant = time.multiply(time).subtract(distance.shiftLeft(2));
+        if (discriminant.signum() <= 0) {
+            return BigInteger.ZERO;
+        }
+        var hold = time.subtract(discriminant.sqrt()).shiftRight(1);
+        while (hold.signum() > 0 && hold.multiply(time.subtract(hold)).compareTo(distance) > 0) {
+            hold = hold.subtract(BigInteger.ONE);
+        }
+        var half = time.shiftRight(1);
+        while (hold.compareTo(half) <= 0 && hold.multiply(time.subtract(hold)).compareTo(distance) <= 0) {
+            hold = hold.add(BigInteger.ONE);
+        }
+        return hold.compareTo(half) > 0 ? BigInteger.ZERO : time.subtract(hold.shiftLeft(1)).add(BigInteger.ONE);
+    }
+
+    /**
+     * Winning options of every race, big batches in parallel.
+     */
+    static long[] winningOptions(long[] times, long[] distances) {
+        if (times.length != distances.length) {
+            throw new IllegalArgumentException("%d times, %d distances".formatted(times.length, distances.length));
+        }
+        var result = new long[times.length];
+        if (times.length > PARALLEL_BATCH) {
+            Arrays.parallelSetAll(result, i -> winningOptions(times[i], distances[i]));
+        } else {
+            Arrays.setAll(result, i -> winningOptions(times[i], distances[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Floor of the square root.
+     */
+    static long sqrt(long n) {
+        var root = (long) Math.sqrt(n);
+        // the double may be off by one either way for the large values, divide so that nothing overflows
+        while (root > 0 && root > n / root) {
+            root--;
+        }
+        while (root + 1 <= n / (root + 1)) {
+            root++;
+        }
+        return root;
+    }
+
+    /**
+     * Product as a Long, or as a BigInteger if it does not fit.
+     */
+    static Number product(long[] values) {
+        long acc = 1;
+        for (int i = 0; i < values.length; i++) {
+            var high = Math.multiplyHigh(acc, values[i]);
+            var low = acc * values[i];
+            if (high != (low >> 63)) {
+                var big = BigInteger.valueOf(acc);
+                for (int j = i; j < values.length; j++) {
+                    big = big.multiply(BigInteger.valueOf(values[j]));
+                }
+                return big;
+            }
+            acc = low;
+        }
+        return acc;
+    }
+}
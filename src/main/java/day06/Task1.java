@@ -1,79 +1,77 @@
 package day06;
 
-import lombok.SneakyThrows;
+import common.Input;
+import common.Parts;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Slf4j
-public class Task1 {
+public class Task1 implements Solver<List<String>> {
     private static final Pattern DIGIT = Pattern.compile("\\d+");
-    private final String file;
-
-    public Task1(String file) {
-        this.file = file;
-    }
 
     public static void main(String[] args) {
-        new Task1("input_small.txt").run();
-        new Task1("input.txt").run();
+        Runner.run(new Task1(), "input_small.txt", "input.txt");
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-          .stream().filter(s -> !s.isBlank()).toList();
+    @Override
+    public List<String> parse(Input input) {
+        return input.nonBlankLines();
+    }
 
+    @Override
+    public Object solve(List<String> lines) {
         var it = lines.iterator();
-        var time = parseDigits(it);
-        var distance = parseDigits(it);
-
-        assert time.length == distance.length;
+        var time = parseNumbers(it);
+        var distance = parseNumbers(it);
+        if (time.length != distance.length) {
+            throw new RuntimeException("incorrect race sheet: %d times, %d distances".formatted(time.length, distance.length));
+        }
+        return new Parts(product(time, distance), winningOptions(String.join("", time), String.join("", distance)));
+    }
 
-        long acc = 1;
+    /**
+     * Product of the winning options, the whole sheet goes to the batch if every number fits into a long.
+     */
+    private Number product(String[] time, String[] distance) {
+        if (Arrays.stream(time).allMatch(Task1::fitsLong) && Arrays.stream(distance).allMatch(Task1::fitsLong)) {
+            var options = Races.winningOptions(
+              Arrays.stream(time).mapToLong(Long::parseLong).toArray(),
+              Arrays.stream(distance).mapToLong(Long::parseLong).toArray());
+            for (int i = 0; i < options.length && log.isDebugEnabled(); i++) {
+                log.debug("Race {} ({}, {}): {} winning options", i, time[i], distance[i], options[i]);
+            }
+            return Races.product(options);
+        }
+        var acc = BigInteger.ONE;
         for (int i = 0; i < time.length; i++) {
-            var nOptions = winningOptions(time[i], distance[i]);
-            log.debug("Race {} ({}, {}): {} winning options", i, time[i], distance[i], nOptions);
-            acc *= nOptions;
+            acc = acc.multiply(Races.winningOptions(new BigInteger(time[i]), new BigInteger(distance[i])));
         }
-
-        log.info("Part 1 result from '{}': {}", file, acc);
-
-        it = lines.iterator();
-        var totalTime = parseLongNumber(it);
-        var totalDistance = parseLongNumber(it);
-        log.info("Part 2 result from '{}': {}", file, winningOptions(totalTime, totalDistance));
+        return acc;
     }
 
-    private long parseLongNumber(Iterator<String> iterator) {
-        var longNumber = DIGIT.matcher(iterator.next()).results()
-          .map(MatchResult::group)
-          .collect(Collectors.joining());
-        return Long.parseLong(longNumber);
+    private Number winningOptions(String time, String distance) {
+        if (fitsLong(time) && fitsLong(distance)) {
+            return Races.winningOptions(Long.parseLong(time), Long.parseLong(distance));
+        }
+        return Races.winningOptions(new BigInteger(time), new BigInteger(distance));
     }
 
-    private long winningOptions(long time, long distance) {
-        // solving square equation
-        var discriminator = Math.sqrt(time * time - 4 * distance);
-        var minRoot = (time - discriminator) / 2;
-        var min = Math.round(Math.floor(minRoot + 1));
-        var maxRoot = (time + discriminator) / 2;
-        var max = Math.round(Math.ceil(maxRoot - 1)); // since the solution should not include the roots
-        log.debug("\t min root: {}, max root: {}", minRoot, maxRoot);
-        return max - min + 1;
+    private static boolean fitsLong(String number) {
+        return number.length() <= 18;
     }
 
-    private long[] parseDigits(Iterator<String> iterator) {
+    private String[] parseNumbers(Iterator<String> iterator) {
         return DIGIT.matcher(iterator.next()).results()
           .map(MatchResult::group)
-          .mapToLong(Long::parseLong)
-          .toArray();
+          .toArray(String[]::new);
     }
 
 }
@@ -0,0 +1,189 @@
+package day07;
+
+import common.Line;
+import common.Lines;
+import lombok.SneakyThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Ranking of more hands than fit into memory: the hands are read in runs of {@link #RUN} records, every run is
+ * radix sorted and spilled to a temp file as (key, bid) longs, then the runs are merged k-way while the winnings
+ * are summed up, so only a buffer per run is in memory at a time.
+ * <p>
+ * The merge is stable, equal keys are taken from the earlier run first, same as the in-memory sort.
+ */
+final class ExternalSort {
+    /**
+     * Records per run, 32 MiB of keys and bids.
+     */
+    static final int RUN = 1 << 22;
+    /**
+     * Read buffer per run while merging.
+     */
+    static final int BUFFER = 1 << 16;
+
+    private ExternalSort() {
+    }
+
+    static long winnings(Lines lines, boolean withJokers) {
+        return winnings(lines, withJokers, RUN);
+    }
+
+    @SneakyThrows
+    static long winnings(Lines lines, boolean withJokers, int runSize) {
+        var file = Files.createTempFile("day07-runs", ".bin");
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var runs = spill(lines, withJokers, runSize, channel);
+            return merge(runs, channel);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Writes the sorted runs one after another, returns the number of records in every run.
+     */
+    private static long[] spill(Lines lines, boolean withJokers, int runSize, FileChannel channel) {
+        var keys = new int[runSize];
+        var bids = new int[runSize];
+        var out = ByteBuffer.allocateDirect(BUFFER);
+        var runs = new ArrayList<Long>();
+        var size = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            keys[size] = HandKeys.key(line, withJokers);
+            bids[size] = HandKeys.bid(line);
+            if (++size == runSize) {
+                write(keys, bids, size, channel, out);
+                runs.add((long) size);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            write(keys, bids, size, channel, out);
+            runs.add((long) size);
+        }
+        return runs.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @SneakyThrows
+    private static void write(int[] keys, int[] bids, int size, FileChannel channel, ByteBuffer out) {
+        HandKeys.sort(keys, bids, size);
+        for (int i = 0; i < size; i++) {
+            if (out.remaining() < Long.BYTES) {
+                drain(out, channel);
+            }
+            out.putLong(record(keys[i], bids[i]));
+        }
+        drain(out, channel);
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Key in the high half, so the records compare as the keys do.
+     */
+    static long record(int key, int bid) {
+        return (long) key << 32 | bid & 0xFFFF_FFFFL;
+    }
+
+    private static long merge(long[] runs, FileChannel channel) {
+        var heap = new PriorityQueue<Run>(Math.max(1, runs.length), Comparator
+          .comparingInt(Run::key)
+          .thenComparingInt(Run::index));
+        long position = 0;
+        for (int i = 0; i < runs.length; i++) {
+            var run = new Run(i, channel, position, runs[i]);
+            position += runs[i] * Long.BYTES;
+            if (run.advance()) {
+                heap.add(run);
+            }
+        }
+        long acc = 0;
+        long rank = 0;
+        while (!heap.isEmpty()) {
+            var run = heap.poll();
+            acc = Math.addExact(acc, Math.multiplyExact(++rank, run.bid()));
+            if (run.advance()) {
+                heap.add(run);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * Sorted run in the file, read through its own buffer.
+     */
+    private static final class Run {
+        private final int index;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position;
+        private long left;
+        private long current;
+
+        Run(int index, FileChannel channel, long position, long records) {
+            this.index = index;
+            this.channel = channel;
+            this.position = position;
+            this.left = records;
+            this.buffer = ByteBuffer.allocate((int) Math.min(BUFFER, records * Long.BYTES));
+            buffer.limit(0);
+        }
+
+        int index() {
+            return index;
+        }
+
+        int key() {
+            return (int) (current >>> 32);
+        }
+
+        int bid() {
+            return (int) current;
+        }
+
+        /**
+         * Moves to the next record, false at the end of the run.
+         */
+        @SneakyThrows
+        boolean advance() {
+            if (left == 0) {
+                return false;
+            }
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), left * Long.BYTES));
+                while (buffer.hasRemaining()) {
+                    var read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IllegalStateException("Run %d is truncated".formatted(index));
+                    }
+                    position += read;
+                }
+                buffer.flip();
+            }
+            current = buffer.getLong();
+            left--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package day07;
+
+import common.Line;
+import common.Lines;
+
+import java.util.Arrays;
+
+/**
+ * Hands as packed int keys: the type in bits 20..23, then the ranks of the five cards, 4 bits each,
+ * the first card highest. Comparing the keys as ints ranks the hands, so the whole ranking is
+ * an LSD radix sort of the keys, 8 bits per pass, carrying the bids along.
+ * <p>
+ * Cards are ranked by a lookup table. The type is read from the table of all 13^5 hands, indexed by the base-13
+ * code of the cards, which is built on the first use for both joker modes. To build it, the type is derived
+ * from the number of equal card pairs, which is different for every type, jokers are then added to the biggest group.
+ */
+final class HandKeys {
+    static final int CARDS = 5;
+    static final int KEY_BITS = 24;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    static final int HIGH_CARD = 0;
+    static final int ONE_PAIR = 1;
+    static final int TWO_PAIR = 2;
+    static final int THREE_OF_KIND = 3;
+    static final int FULL_HOUSE = 4;
+    static final int FOUR_OF_KIND = 5;
+    static final int FIVE_OF_KIND = 6;
+
+    private static final int JOKER = 1;
+    private static final String CARD_ORDER = "23456789TJQKA";
+    private static final int JOKER_INDEX = CARD_ORDER.indexOf('J');
+    static final int HANDS = (int) Math.pow(CARD_ORDER.length(), CARDS);
+
+    // rank by the card byte, 0 is not a card
+    private static final byte[] RANKS = new byte[128];
+    private static final byte[] RANKS_WITH_JOKERS;
+    // base-13 digit by the card byte, -1 is not a card
+    private static final byte[] DIGITS = new byte[128];
+
+    // type by the number of equal pairs: 4 of kind has 6 pairs, 5 of kind 10
+    private static final int[] TYPE_BY_PAIRS = {
+            HIGH_CARD, ONE_PAIR, TWO_PAIR, THREE_OF_KIND, FULL_HOUSE, -1, FOUR_OF_KIND, -1, -1, -1, FIVE_OF_KIND
+    };
+    // type by the number of jokers and the number of equal pairs among the other cards
+    private static final int[][] TYPE_WITH_JOKERS = {
+            TYPE_BY_PAIRS,
+            {ONE_PAIR, THREE_OF_KIND, FULL_HOUSE, FOUR_OF_KIND, -1, -1, FIVE_OF_KIND},
+            {THREE_OF_KIND, FOUR_OF_KIND, -1, FIVE_OF_KIND},
+            {FOUR_OF_KIND, FIVE_OF_KIND},
+            {FIVE_OF_KIND},
+            {FIVE_OF_KIND}
+    };
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < CARD_ORDER.length(); i++) {
+            RANKS[CARD_ORDER.charAt(i)] = (byte) (i + 2);
+            DIGITS[CARD_ORDER.charAt(i)] = (byte) i;
+        }
+        RANKS_WITH_JOKERS = RANKS.clone();
+        RANKS_WITH_JOKERS['J'] = JOKER;
+    }
+
+    private HandKeys() {
+    }
+
+    /**
+     * Keys and bids of all the hands, in the order of the lines.
+     */
+    record Hands(int[] keys, int[] bids, int size) {
+    }
+
+    static Hands parse(Lines lines, boolean withJokers) {
+        var keys = new int[1024];
+        var bids = new int[1024];
+        var size = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                bids = Arrays.copyOf(bids, size * 2);
+            }
+            keys[size] = key(line, withJokers);
+            bids[size] = bid(line);
+            size++;
+        }
+        return new Hands(keys, bids, size);
+    }
+
+    /**
+     * Key of the hand at the start of the line: {@code 32T3K 765}.
+     */
+    static int key(Line line, boolean withJokers) {
+        if (line.length() < CARDS + 2 || line.byteAt(CARDS) != ' ') {
+            throw new RuntimeException("Cannot parse line: " + line);
+        }
+        var ranks = withJokers ? RANKS_WITH_JOKERS : RANKS;
+        var key = 0;
+        var code = 0;
+        for (int i = 0; i < CARDS; i++) {
+            var ch = line.byteAt(i);
+            var digit = ch >= 0 ? DIGITS[ch] : -1;
+            if (digit < 0) {
+                throw new RuntimeException("Cannot parse line: " + line);
+            }
+            key = key << 4 | ranks[ch];
+            code = code * CARD_ORDER.length() + digit;
+        }
+        return Types.type(code, withJokers) << 20 | key;
+    }
+
+    /**
+     * Type of the hand given by the base-13 digits of the cards.
+     */
+    static int classify(int[] digits, boolean withJokers) {
+        var jokers = 0;
+        var pairs = 0;
+        for (int i = 0; i < digits.length; i++) {
+            if (withJokers && digits[i] == JOKER_INDEX) {
+                jokers++;
+                continue;
+            }
+            for (int j = 0; j < i; j++) {
+                if (digits[j] == digits[i]) {
+                    pairs++;
+                }
+            }
+        }
+        return TYPE_WITH_JOKERS[jokers][pairs];
+    }
+
+    static int bid(Line line) {
+        var bid = 0;
+        for (int i = CARDS + 1; i < line.length(); i++) {
+            var digit = line.byteAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new RuntimeException("Cannot parse line: " + line);
+            }
+            bid = Math.addExact(Math.multiplyExact(bid, 10), digit);
+        }
+        return bid;
+    }
+
+    static int type(int key) {
+        return key >>> 20;
+    }
+
+    /**
+     * Types of all the hands, built on the first use. A byte per hand: the type without jokers
+     * in the low nibble, with jokers in the high one.
+     */
+    private static final class Types {
+        private static final byte[] TABLE = build();
+
+        static int type(int code, boolean withJokers) {
+            var types = TABLE[code];
+            return withJokers ? types >>> 4 : types & 0xF;
+        }
+
+        private static byte[] build() {
+            var table = new byte[HANDS];
+            var digits = new int[CARDS];
+            for (int code = 0; code < HANDS; code++) {
+                var rest = code;
+                for (int i = CARDS - 1; i >= 0; i--) {
+                    digits[i] = rest % CARD_ORDER.length();
+                    rest /= CARD_ORDER.length();
+                }
+                table[code] = (byte) (classify(digits, true) << 4 | classify(digits, false));
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Sorts the first {@code size} keys, the bids are moved along with their keys. Stable.
+     */
+    static void sort(int[] keys, int[] bids, int size) {
+        var keyBuffer = new int[size];
+        var bidBuffer = new int[size];
+        var counts = new int[RADIX];
+        int[] fromKeys = keys, fromBids = bids, toKeys = keyBuffer, toBids = bidBuffer;
+        for (int shift = 0; shift < KEY_BITS; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[fromKeys[i] >>> shift & (RADIX - 1)]++;
+            }
+            // counts become the first position of every digit
+            var position = 0;
+            for (int d = 0; d < RADIX; d++) {
+                var count = counts[d];
+                counts[d] = position;
+                position += count;
+            }
+            for (int i = 0; i < size; i++) {
+                var target = counts[fromKeys[i] >>> shift & (RADIX - 1)]++;
+                toKeys[target] = fromKeys[i];
+                toBids[target] = fromBids[i];
+            }
+            int[] swap = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swap;
+            swap = fromBids;
+            fromBids = toBids;
+            toBids = swap;
+        }
+        if (fromKeys != keys) { // odd number of passes
+            System.arraycopy(fromKeys, 0, keys, 0, size);
+            System.arraycopy(fromBids, 0, bids, 0, size);
+        }
+    }
+
+    /**
+     * Sum of rank times bid, the keys have to be sorted.
+     */
+    static long winnings(int[] bids, int size) {
+        long acc = 0;
+        for (int i = 0; i < size; i++) {
+            acc = Math.addExact(acc, Math.multiplyExact(i + 1L, bids[i]));
+        }
+        return acc;
+    }
+}
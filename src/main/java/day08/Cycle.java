@@ -0,0 +1,137 @@
+package day08;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Walk of a ghost as a lasso: the state is (node, instruction offset), so the walk repeats after at most
+ * {@code nodes * instructions} steps. The first {@code start} steps lead into the loop of {@code period} steps,
+ * {@code hits} are all the steps below {@code start + period} that end on a target node, so a step {@code t}
+ * beyond the loop start is a hit iff {@code start + (t - start) % period} is one.
+ * <p>
+ * Ghosts meet when they are all on a target: either before the last of them enters its loop, checked one hit
+ * at a time, or at a step solving {@code t ≡ hit (mod period)} for every ghost, combined by the generalized
+ * Chinese remainder theorem over every choice of the hits in the loops.
+ */
+record Cycle(long start, long period, long[] hits) {
+
+    static Cycle of(Network network, int from, IntPredicate target) {
+        var length = network.instructions();
+        // step of the first visit of (node, instruction offset), -1 if not visited
+        var visited = new int[network.size() * length];
+        Arrays.fill(visited, -1);
+        var hits = new long[8];
+        var count = 0;
+        var node = from;
+        for (int step = 0; ; step++) {
+            var offset = step % length;
+            var slot = node * length + offset;
+            if (visited[slot] != -1) {
+                return new Cycle(visited[slot], step - visited[slot], Arrays.copyOf(hits, count));
+            }
+            visited[slot] = step;
+            if (target.test(node)) {
+                if (count == hits.length) {
+                    hits = Arrays.copyOf(hits, count * 2);
+                }
+                hits[count++] = step;
+            }
+            node = network.next(node, offset);
+        }
+    }
+
+    /**
+     * Whether the ghost is on a target after the steps.
+     */
+    boolean isHit(long step) {
+        var folded = step < start ? step : start + (step - start) % period;
+        return Arrays.binarySearch(hits, folded) >= 0;
+    }
+
+    /**
+     * The first step, at least 1, after which all the ghosts are on a target.
+     */
+    static long firstMeeting(List<Cycle> cycles) {
+        if (cycles.isEmpty()) {
+            throw new IllegalArgumentException("No ghosts");
+        }
+        var latest = cycles.get(0);
+        for (var cycle : cycles) {
+            if (cycle.start > latest.start) {
+                latest = cycle;
+            }
+        }
+        // before all the ghosts loop, a meeting is a hit of the latest looping one
+        for (long hit : latest.hits) {
+            if (hit >= latest.start) {
+                break;
+            }
+            if (hit > 0 && cycles.stream().allMatch(cycle -> cycle.isHit(hit))) {
+                return hit;
+            }
+        }
+
+        // then the residues of the meeting steps modulo the lcm of the periods
+        var residues = new long[]{0};
+        long modulus = 1;
+        for (var cycle : cycles) {
+            var combined = new long[residues.length * cycle.hits.length];
+            var count = 0;
+            for (long residue : residues) {
+                for (long hit : cycle.hits) {
+                    if (hit < cycle.start) {
+                        continue;
+                    }
+                    var solution = crt(residue, modulus, hit % cycle.period, cycle.period);
+                    if (solution >= 0) {
+                        combined[count++] = solution;
+                    }
+                }
+            }
+            residues = Arrays.stream(combined, 0, count).sorted().distinct().toArray();
+            if (residues.length == 0) {
+                throw new IllegalStateException("Ghosts never meet");
+            }
+            modulus = lcm(modulus, cycle.period);
+        }
+
+        var bound = Math.max(1, latest.start);
+        var result = Long.MAX_VALUE;
+        for (long residue : residues) {
+            result = Math.min(result, residue + Math.multiplyExact(Math.ceilDiv(bound - residue, modulus), modulus));
+        }
+        return result;
+    }
+
+    /**
+     * The least non-negative {@code x} with {@code x ≡ a (mod m)} and {@code x ≡ b (mod n)}, -1 if there is none.
+     */
+    static long crt(long a, long m, long b, long n) {
+        var g = gcd(m, n);
+        if ((b - a) % g != 0) {
+            return -1;
+        }
+        var lcm = lcm(m, n);
+        // a + m * k, where m/g * k ≡ (b - a)/g (mod n/g)
+        var step = BigInteger.valueOf(n / g);
+        var k = BigInteger.valueOf((b - a) / g)
+          .multiply(BigInteger.valueOf(m / g).modInverse(step))
+          .mod(step);
+        return Math.floorMod(a + Math.multiplyExact(m, k.longValueExact()), lcm);
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            var rest = a % b;
+            a = b;
+            b = rest;
+        }
+        return a;
+    }
+
+    static long lcm(long a, long b) {
+        return Math.multiplyExact(a / gcd(a, b), b);
+    }
+}
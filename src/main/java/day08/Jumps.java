@@ -0,0 +1,153 @@
+package day08;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Binary lifting over the passes of the instructions, for walks starting at the first instruction.
+ * {@code within} has the node after every prefix of a pass, so the last row maps every node to the node after
+ * a full pass; {@code up[k]} is the node after {@code 2^k} passes and {@code firstHits[k]} the first step within
+ * those passes ending on a target. A walk of {@code N} steps is a jump per set bit of {@code N / instructions}
+ * and a prefix of a pass, so both queries are {@code O(log N)}.
+ */
+final class Jumps {
+    /**
+     * Batches bigger than that are answered in parallel.
+     */
+    static final int PARALLEL_BATCH = 1 << 12;
+
+    private final int size;
+    private final int length;
+    private final long maxSteps;
+    // node after r steps of a pass at r * size + node
+    private final int[] within;
+    private final int[][] up;
+    private final long[][] firstHits;
+
+    /**
+     * Tables for the walks of up to {@code maxSteps} steps.
+     */
+    Jumps(Network network, IntPredicate target, long maxSteps) {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("Negative steps: " + maxSteps);
+        }
+        this.size = network.size();
+        this.length = network.instructions();
+        this.maxSteps = maxSteps;
+
+        within = new int[size * (length + 1)];
+        for (int node = 0; node < size; node++) {
+            within[node] = node;
+        }
+        for (int r = 0; r < length; r++) {
+            for (int node = 0; node < size; node++) {
+                within[(r + 1) * size + node] = network.next(within[r * size + node], r);
+            }
+        }
+
+        var levels = Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(maxSteps / length));
+        up = new int[levels][];
+        firstHits = new long[levels][];
+        up[0] = Arrays.copyOfRange(within, length * size, (length + 1) * size);
+        firstHits[0] = new long[size];
+        for (int node = 0; node < size; node++) {
+            firstHits[0][node] = -1;
+            for (int r = 1; r <= length; r++) {
+                if (target.test(within[r * size + node])) {
+                    firstHits[0][node] = r;
+                    break;
+                }
+            }
+        }
+        for (int k = 1; k < levels; k++) {
+            var half = (long) length << (k - 1);
+            up[k] = new int[size];
+            firstHits[k] = new long[size];
+            for (int node = 0; node < size; node++) {
+                var middle = up[k - 1][node];
+                up[k][node] = up[k - 1][middle];
+                var first = firstHits[k - 1][node];
+                if (first == -1 && firstHits[k - 1][middle] != -1) {
+                    first = half + firstHits[k - 1][middle];
+                }
+                firstHits[k][node] = first;
+            }
+        }
+    }
+
+    /**
+     * Node after the steps from the start.
+     */
+    int position(int start, long steps) {
+        check(steps);
+        var passes = steps / length;
+        var node = start;
+        for (int k = 0; passes >>> k != 0; k++) {
+            if ((passes >>> k & 1) != 0) {
+                node = up[k][node];
+            }
+        }
+        return within[(int) (steps % length) * size + node];
+    }
+
+    /**
+     * The first step, from 1 to {@code steps}, ending on a target, -1 if there is none.
+     */
+    long firstHit(int start, long steps) {
+        check(steps);
+        var passes = steps / length;
+        long base = 0;
+        var node = start;
+        for (int k = 0; passes >>> k != 0; k++) {
+            if ((passes >>> k & 1) != 0) {
+                if (firstHits[k][node] != -1) {
+                    return base + firstHits[k][node];
+                }
+                base += (long) length << k;
+                node = up[k][node];
+            }
+        }
+        var first = firstHits[0][node];
+        return first != -1 && first <= steps % length ? base + first : -1;
+    }
+
+    /**
+     * Nodes after the steps from the starts, big batches in parallel.
+     */
+    int[] positions(int[] starts, long[] steps) {
+        checkBatch(starts, steps);
+        var result = new int[starts.length];
+        if (starts.length > PARALLEL_BATCH) {
+            Arrays.parallelSetAll(result, i -> position(starts[i], steps[i]));
+        } else {
+            Arrays.setAll(result, i -> position(starts[i], steps[i]));
+        }
+        return result;
+    }
+
+    /**
+     * First hits within the steps from the starts, big batches in parallel.
+     */
+    long[] firstHits(int[] starts, long[] steps) {
+        checkBatch(starts, steps);
+        var result = new long[starts.length];
+        if (starts.length > PARALLEL_BATCH) {
+            Arrays.parallelSetAll(result, i -> firstHit(starts[i], steps[i]));
+        } else {
+            Arrays.setAll(result, i -> firstHit(starts[i], steps[i]));
+        }
+        return result;
+    }
+
+    private void check(long steps) {
+        if (steps < 0 || steps > maxSteps) {
+            throw new IllegalArgumentException("Steps %d out of 0..%d".formatted(steps, maxSteps));
+        }
+    }
+
+    private static void checkBatch(int[] starts, long[] steps) {
+        if (starts.length != steps.length) {
+            throw new IllegalArgumentException("%d starts, %d steps".formatted(starts.length, steps.length));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package day08;
+
+import common.Line;
+import common.Lines;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Network with the node ids interned to dense ints at parse time: a three char id is a base-36 code below 36^3,
+ * mapped to the index in the order of the node definitions. Edges are {@code int[] left}/{@code int[] right}
+ * and the instructions are bytes, so a walk is array reads only.
+ */
+final class Network {
+    static final byte LEFT = 0;
+    static final byte RIGHT = 1;
+    static final int ID_LENGTH = 3;
+    private static final int CODES = 36 * 36 * 36;
+
+    private final byte[] instructions;
+    private final int[] left;
+    private final int[] right;
+    private final String[] names;
+    // the last char of every id
+    private final byte[] suffixes;
+
+    private Network(byte[] instructions, int[] left, int[] right, String[] names) {
+        this.instructions = instructions;
+        this.left = left;
+        this.right = right;
+        this.names = names;
+        this.suffixes = new byte[names.length];
+        for (int i = 0; i < names.length; i++) {
+            suffixes[i] = (byte) names[i].charAt(ID_LENGTH - 1);
+        }
+    }
+
+    /**
+     * The first non-blank line is the instructions, then {@code AAA = (BBB, CCC)} lines.
+     */
+    static Network parse(Lines lines) {
+        byte[] instructions = null;
+        var idByCode = new int[CODES];
+        Arrays.fill(idByCode, -1);
+
+        // ids in the order of the definitions, then the edges
+        var count = 0;
+        var cursor = lines.cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (instructions == null) {
+                instructions = parseInstructions(line);
+                continue;
+            }
+            if (line.length() != 16 || line.byteAt(4) != '=' || line.byteAt(6) != '('
+                || line.byteAt(10) != ',' || line.byteAt(15) != ')') {
+                throw new RuntimeException("incorrect line: " + line);
+            }
+            var code = code(line, 0);
+            if (idByCode[code] != -1) {
+                throw new RuntimeException("duplicate node: " + line);
+            }
+            idByCode[code] = count++;
+        }
+        if (instructions == null) {
+            throw new RuntimeException("no instructions");
+        }
+
+        var left = new int[count];
+        var right = new int[count];
+        var names = new String[count];
+        var skipped = false;
+        cursor = lines.cursor();
+        while (cursor.next(line)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!skipped) { // instructions
+                skipped = true;
+                continue;
+            }
+            var id = idByCode[code(line, 0)];
+            left[id] = resolve(idByCode, line, 7);
+            right[id] = resolve(idByCode, line, 12);
+            names[id] = line.toString().substring(0, ID_LENGTH);
+        }
+        return new Network(instructions, left, right, names);
+    }
+
+    private static byte[] parseInstructions(Line line) {
+        var result = new byte[line.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = switch (line.byteAt(i)) {
+                case 'L' -> LEFT;
+                case 'R' -> RIGHT;
+                default -> throw new RuntimeException("incorrect instructions: " + line);
+            };
+        }
+        return result;
+    }
+
+    private static int resolve(int[] idByCode, Line line, int offset) {
+        var id = idByCode[code(line, offset)];
+        if (id == -1) {
+            throw new RuntimeException("unknown node: " + line);
+        }
+        return id;
+    }
+
+    private static int code(Line line, int offset) {
+        var code = 0;
+        for (int i = offset; i < offset + ID_LENGTH; i++) {
+            var ch = line.byteAt(i);
+            int digit;
+            if (ch >= '0' && ch <= '9') {
+                digit = ch - '0';
+            } else if (ch >= 'A' && ch <= 'Z') {
+                digit = ch - 'A' + 10;
+            } else {
+                throw new RuntimeException("incorrect line: " + line);
+            }
+            code = code * 36 + digit;
+        }
+        return code;
+    }
+
+    int size() {
+        return left.length;
+    }
+
+    int instructions() {
+        return instructions.length;
+    }
+
+    /**
+     * Node after the step made at the instruction offset.
+     */
+    int next(int node, int offset) {
+        return instructions[offset] == LEFT ? left[node] : right[node];
+    }
+
+    String name(int node) {
+        return names[node];
+    }
+
+    /**
+     * Id of the node, -1 if there is no such node.
+     */
+    int id(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean endsWith(int node, char ch) {
+        return suffixes[node] == ch;
+    }
+
+    int[] nodesEndingWith(char ch) {
+        return IntStream.range(0, size()).filter(node -> endsWith(node, ch)).toArray();
+    }
+}
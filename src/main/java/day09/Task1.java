@@ -1,47 +1,45 @@
 package day09;
 
-import lombok.SneakyThrows;
+import common.ByteScanner;
+import common.Input;
+import common.Line;
+import common.Parts;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.regex.MatchResult;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
 
 @Slf4j
-public class Task1 {
-    private static final Pattern NUMBER = Pattern.compile("-?\\d+");
-    private final String file;
-
-    public Task1(String file) {
-        this.file = file;
-    }
+public class Task1 implements Solver<long[][]> {
 
     public static void main(String[] args) {
-        new Task1("input_small.txt").run();
-        new Task1("input.txt").run();
+        Runner.run(new Task1(), "input_small.txt", "input.txt");
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-          .stream().filter(s -> !s.isBlank()).toList();
-
-
-        var result = lines.stream()
-          .map(this::parseSequence)
-          .mapToLong(this::calculateNext)
-          .sum();
-
-        log.info("Part 1 result from '{}': {}", file, result);
-
-        var result2 = lines.stream()
-          .map(this::parseSequence)
-          .mapToLong(this::calculatePrev)
-          .sum();
+    /**
+     * Sequences of the non-blank lines, the numbers are scanned straight from the bytes.
+     */
+    @Override
+    public long[][] parse(Input input) {
+        var result = new ArrayList<long[]>();
+        var scanner = new ByteScanner();
+        var cursor = input.mapped().cursor();
+        var line = new Line();
+        while (cursor.next(line)) {
+            if (!line.isBlank()) {
+                result.add(scanner.reset(line).longs());
+            }
+        }
+        return result.toArray(long[][]::new);
+    }
 
-        log.info("Part 2 result from '{}': {}", file, result2);
+    @Override
+    public Object solve(long[][] sequences) {
+        var result = Arrays.stream(sequences).parallel().mapToLong(this::calculateNext).sum();
+        var result2 = Arrays.stream(sequences).parallel().mapToLong(this::calculatePrev).sum();
+        return new Parts(result, result2);
     }
 
     // recursion version
@@ -93,11 +91,4 @@ public class Task1 {
         // recursion step
         return sequence[0] - calculatePrev(diff);
     }
-
-    private long[] parseSequence(String line) {
-        return NUMBER.matcher(line).results()
-          .map(MatchResult::group)
-          .mapToLong(Long::parseLong)
-          .toArray();
-    }
 }
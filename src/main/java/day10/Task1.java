@@ -1,13 +1,13 @@
 package day10;
 
+import common.Input;
+import common.Parts;
+import common.Runner;
+import common.Solver;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -15,9 +15,7 @@ import java.util.stream.Collectors;
 import static day10.Task1.Direction.*;
 
 @Slf4j
-public class Task1 {
-
-    private char[][] lines;
+public class Task1 implements Solver<char[][]> {
 
     @AllArgsConstructor
     enum Direction {
@@ -101,27 +99,24 @@ public class Task1 {
         }
     }
 
-    private final String file;
-
-    @SneakyThrows
-    public Task1(String file) {
-        this.file = file;
-        this.lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-          .stream().filter(s -> !s.isBlank()).map(String::toCharArray).toArray(char[][]::new);
+    public static void main(String[] args) {
+        Runner.run(new Task1(),
+                   "input_small1.txt",
+                   "input_small2.txt",
+                   "input_small3.txt",
+                   "input_small4.txt",
+                   "input_small5.txt",
+                   "input_small6.txt",
+                   "input.txt");
     }
 
-    public static void main(String[] args) {
-        new Task1("input_small1.txt").run();
-        new Task1("input_small2.txt").run();
-        new Task1("input_small3.txt").run();
-        new Task1("input_small4.txt").run();
-        new Task1("input_small5.txt").run();
-        new Task1("input_small6.txt").run();
-        new Task1("input.txt").run();
+    @Override
+    public char[][] parse(Input input) {
+        return input.grid();
     }
 
-    @SneakyThrows
-    private void run() {
+    @Override
+    public Object solve(char[][] lines) {
         int x = -1, y = -1;
 
         outer:
@@ -145,7 +140,7 @@ public class Task1 {
         // let's start and will go in any direction
         var prev = n;
         do {
-            var next = step(prev);
+            var next = step(lines, prev);
             // calculate the area under the line
             area += (next.x - prev.x) * next.y;
             perimeter++;
@@ -157,18 +152,18 @@ public class Task1 {
         // this formula gives # of int coordinates nodes within the curve
         var result = area - perimeter / 2 + 1;
 
-        log.info("Part 1 result from '{}': {}", file, perimeter / 2); // first task solution is just half of perimeter
-        log.info("Part 2 result from '{}': {}", file, result);
+        // first task solution is just half of perimeter
+        return new Parts(perimeter / 2, result);
     }
 
-    private Node step(Node node) {
+    private Node step(char[][] lines, Node node) {
         return node.pipe.directions.stream().filter(d -> d != node.from)
-          .flatMap(d -> attempt(node, d).stream())
+          .flatMap(d -> attempt(lines, node, d).stream())
           .findFirst()
           .get();
     }
 
-    private Optional<Node> attempt(Node n, Direction direction) {
+    private Optional<Node> attempt(char[][] lines, Node n, Direction direction) {
         var newY = direction.goY(n.y);
         if (invalidIndex(newY, lines.length)) {
             return Optional.empty();
@@ -1,53 +1,57 @@
 package day12;
 
 import ch.qos.logback.classic.Level;
-import lombok.SneakyThrows;
+import common.Input;
+import common.Parts;
+import common.Runner;
+import common.Solver;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
-public class Task1 {
+public class Task1 implements Solver<List<Task1.Springs>> {
     private static final Pattern RECORD = Pattern.compile("([.?#]+)\\s+([\\d,]+)");
-    private final String file;
-
-    public Task1(String file) {
-        this.file = file;
-    }
 
     public static void main(String[] args) {
-        new Task1("input_small.txt").run();
-        new Task1("input.txt").run();
+        Runner.run(new Task1(), "input_small.txt", "input.txt");
     }
 
-    @SneakyThrows
-    private void run() {
-        var lines = Files.readAllLines(Paths.get(this.getClass().getResource(file).toURI()), Charset.defaultCharset())
-          .stream().filter(s -> !s.isBlank()).toList();
+    @Override
+    public List<Springs> parse(Input input) {
+        return input.nonBlankLines().stream()
+          .map(this::parseRecord)
+          .toList();
+    }
 
+    @Override
+    public Object solve(List<Springs> records) {
         enableLogLevel(Level.DEBUG);
-        var result = lines.stream()
-          .map(this::parseRecord)
-          .mapToInt(this::calculateArrangements)
-          .sum();
+        var result = part1(records);
 
-        log.info("Part 1 result from '{}': {}", file, result);
+        log.info("Part 1 result: {}", result);
 
         enableLogLevel(Level.INFO);
-        var result2 = lines.parallelStream()
-          .map(this::parseRecord)
-          .map(this::unfoldRecord)
+        var result2 = part2(records);
+
+        return new Parts(result, result2);
+    }
+
+    int part1(List<Springs> records) {
+        return records.stream()
           .mapToInt(this::calculateArrangements)
           .sum();
+    }
 
-        log.info("Part 2 result from '{}': {}", file, result2);
+    int part2(List<Springs> records) {
+        return records.parallelStream()
+          .map(this::unfoldRecord)
+          .mapToInt(this::calculateArrangements)
+          .sum();
     }
 
     private static void enableLogLevel(Level level) {
@@ -0,0 +1,67 @@
+package common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The cursor gives the same lines as splitting the text, also across the regions.
+ */
+class LinesTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void cursor() throws IOException {
+        assertLines("a\nbc\n\nd\n", 64, List.of("a", "bc", "", "d"));
+        assertLines("a\r\nbc\r\n", 64, List.of("a", "bc"));
+        assertLines("no terminator", 64, List.of("no terminator"));
+        assertLines("", 64, List.of());
+        assertLines("\n", 64, List.of(""));
+    }
+
+    @Test
+    void cursorAcrossRegions() throws IOException {
+        assertLines("abc\ndef\nghi\njk\nl", 5, List.of("abc", "def", "ghi", "jk", "l"));
+    }
+
+    @Test
+    void bufferCursor() throws IOException {
+        var lines = map("abc\ndef\nghi\n", 64);
+        var cursor = Lines.cursor(lines.regions().getFirst(), 4, 12);
+        var line = new Line();
+        var result = new ArrayList<String>();
+        while (cursor.next(line)) {
+            result.add(line.toString());
+        }
+        assertEquals(List.of("def", "ghi"), result);
+    }
+
+    private void assertLines(String text, int maxRegion, List<String> expected) throws IOException {
+        var lines = map(text, maxRegion);
+        var cursor = lines.cursor();
+        var line = new Line();
+        var result = new ArrayList<String>();
+        while (cursor.next(line)) {
+            result.add(line.toString());
+        }
+        assertFalse(cursor.next(line));
+        assertEquals(expected, result);
+
+        var viaForEach = new ArrayList<String>();
+        lines.forEach(each -> viaForEach.add(each.toString()));
+        assertEquals(expected, viaForEach);
+    }
+
+    private Lines map(String text, int maxRegion) throws IOException {
+        return Lines.map(Files.writeString(dir.resolve("lines.txt"), text), maxRegion);
+    }
+}
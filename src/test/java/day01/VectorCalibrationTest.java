@@ -0,0 +1,94 @@
+package day01;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The vector scan has to agree with the scalar one, also across the lanes and the copy blocks.
+ */
+class VectorCalibrationTest {
+    private static final int BLOCK = 1 << 16;
+
+    @Test
+    void linesLongerThanLane() {
+        var text = "a".repeat(100) + "1" + "b".repeat(200) + "2" + "c".repeat(70) + "\n"
+          + "7" + "x".repeat(129) + "\n";
+        assertSame(text, 12 + 77);
+    }
+
+    @Test
+    void linesAcrossBlockBoundary() {
+        var text = new StringBuilder();
+        while (text.length() < BLOCK - 5) {
+            text.append("x1y2z\n");
+        }
+        // digits on both sides of the boundary
+        text.append("3abcdefgh4\n");
+        text.append("q".repeat(BLOCK)).append("5").append("q".repeat(10)).append("\n");
+        assertSame(text.toString(), -1);
+    }
+
+    @Test
+    void crlfLineEndings() {
+        assertSame("1abc2\r\npqr3stu8vwx\r\n\r\ntreb7uchet\r\n", 12 + 38 + 77);
+    }
+
+    @Test
+    void noTrailingNewline() {
+        assertSame("1abc2\npqr3stu8vwx", 12 + 38);
+        assertSame("9", 99);
+    }
+
+    @Test
+    void linesWithoutDigits() {
+        assertSame("abc\n\n\nxyz\n4\n", 44);
+        assertSame("no digits at all", 0);
+        assertSame("", 0);
+    }
+
+    @Test
+    void partialTailLanes() {
+        var text = new StringBuilder();
+        for (int length = 1; length < 200; length++) {
+            text.setLength(0);
+            for (int i = 0; i < length; i++) {
+                text.append(i % 7 == 3 ? '\n' : i % 5 == 0 ? (char) ('0' + i % 10) : 'k');
+            }
+            assertSame(text.toString(), -1);
+        }
+    }
+
+    @Test
+    void randomChunks() {
+        var random = new Random(7);
+        var alphabet = "0123456789abc\n\r";
+        var bytes = new byte[3 * BLOCK + 123];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        var buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < 50; i++) {
+            var from = random.nextInt(bytes.length);
+            var to = from + random.nextInt(bytes.length - from + 1);
+            assertEquals(Task.calibration(buffer, from, to), VectorCalibration.calibration(buffer, from, to),
+              "chunk %d..%d".formatted(from, to));
+        }
+    }
+
+    /**
+     * Both scans agree on the whole text, and on the expected sum unless it is -1.
+     */
+    private static void assertSame(String text, long expected) {
+        var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        var scalar = Task.calibration(buffer, 0, buffer.limit());
+        if (expected >= 0) {
+            assertEquals(expected, scalar);
+        }
+        assertEquals(scalar, VectorCalibration.calibration(buffer, 0, buffer.limit()));
+    }
+}
@@ -0,0 +1,87 @@
+package day02;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Index queries against a brute-force filter of random games, from the prefix sums and from the k-d tree.
+ */
+class GameIndexTest {
+    private static final String[] COLORS = {"red", "green", "blue"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void prefixSums() throws IOException {
+        check(new Random(1), 500, GameIndex.MAX_CELLS, true);
+    }
+
+    @Test
+    void tree() throws IOException {
+        check(new Random(2), 500, 10, false);
+        check(new Random(4), 20_000, 10, false);
+    }
+
+    @Test
+    void parsedInChunks() throws IOException {
+        // well over ParallelLines.CHUNK of input, the chunks have to be concatenated in order
+        check(new Random(3), 40_000, GameIndex.MAX_CELLS, true);
+    }
+
+    private void check(Random random, int games, long maxCells, boolean table) throws IOException {
+        var maxima = new int[games][COLORS.length];
+        var text = new StringBuilder();
+        for (int game = 0; game < games; game++) {
+            text.append("Game ").append(game + 1).append(':');
+            var draws = 1 + random.nextInt(4);
+            for (int draw = 0; draw < draws; draw++) {
+                text.append(draw == 0 ? " " : "; ");
+                for (int color = 0; color < COLORS.length; color++) {
+                    var count = random.nextInt(20);
+                    maxima[game][color] = Math.max(maxima[game][color], count);
+                    text.append(color == 0 ? "" : ", ").append(count).append(' ').append(COLORS[color]);
+                }
+            }
+            text.append('\n');
+        }
+        var file = Files.writeString(dir.resolve("games.txt"), text);
+        var parsed = Games.parse(Input.of(file).mapped());
+        assertEquals(games, parsed.size());
+        for (int game = 0; game < games; game++) {
+            assertEquals(game + 1, parsed.id(game));
+            assertEquals(maxima[game][0], parsed.cubes(game, Color.RED));
+        }
+        var index = GameIndex.build(parsed, maxCells);
+        assertEquals(games, index.size());
+        if (table) {
+            assertTrue(index.isTable());
+        } else {
+            assertFalse(index.isTable());
+        }
+
+        var bags = new int[300][];
+        var expected = new long[bags.length];
+        for (int q = 0; q < bags.length; q++) {
+            bags[q] = new int[]{random.nextInt(22) - 1, random.nextInt(22) - 1, random.nextInt(22) - 1};
+            for (int game = 0; game < games; game++) {
+                if (maxima[game][0] <= bags[q][0] && maxima[game][1] <= bags[q][1] && maxima[game][2] <= bags[q][2]) {
+                    expected[q] += game + 1;
+                }
+            }
+            assertEquals(expected[q], index.sumOfPossibleIds(bags[q][0], bags[q][1], bags[q][2]));
+        }
+        assertArrayEquals(expected, index.sumOfPossibleIds(bags));
+    }
+}
@@ -0,0 +1,150 @@
+package day03;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Index queries against a scan of the grid around every number, before and after a save and load.
+ */
+class SchematicIndexTest {
+    private static final String SYMBOLS = "*#+$/@=%-&";
+    private static final List<IntPredicate> CLASSES = List.of(
+      SchematicIndex.ANY, ch -> ch == '*', ch -> ch == '#' || ch == '$', ch -> ch == '?');
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sample() throws IOException {
+        var index = index("""
+          467..114..
+          ...*......
+          ..35..633.
+          ......#...
+          617*......
+          .....+.58.
+          ..592.....
+          ......755.
+          ...$.*....
+          .664.598..
+          """);
+        assertEquals(10, index.rows());
+        assertEquals(10, index.numbers());
+        assertEquals(6, index.symbols());
+        assertEquals(4361, index.sumOfParts(SchematicIndex.ANY));
+        assertEquals(467 + 35 + 617 + 755 + 598, index.sumOfParts(ch -> ch == '*'));
+        assertArrayEquals(new int[]{0, 5}, index.symbolsWithNeighbours(ch -> ch == '*', 2));
+        assertEquals(467835, index.sumOfProducts(ch -> ch == '*', 2));
+    }
+
+    @Test
+    void randomSchematics() throws IOException {
+        var random = new Random(13);
+        for (int i = 0; i < 30; i++) {
+            var schematic = schematic(random, 1 + random.nextInt(25), 1 + random.nextInt(40));
+            var index = index(schematic);
+            assertQueries(schematic, index);
+
+            var file = dir.resolve("index.bin");
+            index.save(file);
+            assertQueries(schematic, SchematicIndex.load(file));
+        }
+    }
+
+    private SchematicIndex index(String schematic) throws IOException {
+        var file = Files.writeString(dir.resolve("schematic.txt"), schematic);
+        return SchematicIndex.build(Input.of(file).mapped());
+    }
+
+    /**
+     * Rows of digits, dots and symbols, dense enough for the symbols with up to 6 numbers around.
+     */
+    private static String schematic(Random random, int rows, int width) {
+        var sb = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < width; col++) {
+                var p = random.nextInt(10);
+                sb.append(p < 2 ? SYMBOLS.charAt(random.nextInt(SYMBOLS.length()))
+                  : p < 6 ? (char) ('0' + random.nextInt(10)) : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void assertQueries(String schematic, SchematicIndex index) {
+        var grid = schematic.lines().map(String::toCharArray).toArray(char[][]::new);
+        // numbers as {row, start, end}, symbols as {row, column}, both in the reading order
+        var numbers = new ArrayList<int[]>();
+        var symbols = new ArrayList<int[]>();
+        for (int row = 0; row < grid.length; row++) {
+            for (int col = 0; col < grid[row].length; col++) {
+                if (Character.isDigit(grid[row][col])) {
+                    var start = col;
+                    while (col + 1 < grid[row].length && Character.isDigit(grid[row][col + 1])) {
+                        col++;
+                    }
+                    numbers.add(new int[]{row, start, col + 1});
+                } else if (grid[row][col] != '.') {
+                    symbols.add(new int[]{row, col});
+                }
+            }
+        }
+        assertEquals(grid.length, index.rows());
+        assertEquals(numbers.size(), index.numbers());
+        assertEquals(symbols.size(), index.symbols());
+
+        for (var symbolClass : CLASSES) {
+            long parts = 0;
+            for (int n = 0; n < numbers.size(); n++) {
+                var number = numbers.get(n);
+                var value = Long.parseLong(new String(grid[number[0]], number[1], number[2] - number[1]));
+                assertEquals(value, index.value(n));
+                for (var symbol : symbols) {
+                    if (symbolClass.test(grid[symbol[0]][symbol[1]]) && isAdjacent(number, symbol)) {
+                        parts += value;
+                        break;
+                    }
+                }
+            }
+            assertEquals(parts, index.sumOfParts(symbolClass));
+
+            for (int count = 0; count <= 6; count++) {
+                var expected = new ArrayList<Integer>();
+                for (int s = 0; s < symbols.size(); s++) {
+                    var symbol = symbols.get(s);
+                    if (!symbolClass.test(grid[symbol[0]][symbol[1]])) {
+                        continue;
+                    }
+                    var around = 0;
+                    for (var number : numbers) {
+                        if (isAdjacent(number, symbol)) {
+                            around++;
+                        }
+                    }
+                    if (around == count) {
+                        expected.add(s);
+                    }
+                }
+                assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(),
+                  index.symbolsWithNeighbours(symbolClass, count), "neighbours " + count);
+            }
+        }
+    }
+
+    private static boolean isAdjacent(int[] number, int[] symbol) {
+        return Math.abs(number[0] - symbol[0]) <= 1 && symbol[1] >= number[1] - 1 && symbol[1] <= number[2];
+    }
+}
@@ -0,0 +1,99 @@
+package day03;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The bitset bands and all the modes agree with the GRID scan, also for the bands of a single row, where
+ * every number and symbol is on a band boundary, and for the rows wider than a word of the bitsets.
+ */
+class Task1Test {
+    private static final String SYMBOLS = "*#+$/@=%-&";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sample() throws IOException {
+        assertAllModes("""
+          467..114..
+          ...*......
+          ..35..633.
+          ......#...
+          617*......
+          .....+.58.
+          ..592.....
+          ......755.
+          ...$.*....
+          .664.598..
+          """, 4361);
+    }
+
+    @Test
+    void symbolsOnBandBoundaries() throws IOException {
+        // symbols above and below the numbers, diagonally and at the row ends
+        assertAllModes("""
+          12.....*
+          *..34..5
+          ...#..#.
+          7.....89
+          .$.....*
+          """, 12 + 34 + 5 + 7 + 89);
+    }
+
+    @Test
+    void randomSchematics() throws IOException {
+        var random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            assertAllModes(schematic(random, 1 + random.nextInt(30), 1 + random.nextInt(150)), -1);
+        }
+    }
+
+    /**
+     * Rows of digits, dots and symbols, one in ten cells a symbol.
+     */
+    private static String schematic(Random random, int rows, int width) {
+        var sb = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < width; col++) {
+                var p = random.nextInt(10);
+                sb.append(p == 0 ? SYMBOLS.charAt(random.nextInt(SYMBOLS.length()))
+                  : p < 4 ? (char) ('0' + random.nextInt(10)) : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Every mode and the bands of 1, 2, 3 and 7 bytes, extended to whole rows, agree with GRID,
+     * and GRID with the expected sum unless it is -1.
+     */
+    private void assertAllModes(String schematic, long expected) throws IOException {
+        var file = Files.writeString(dir.resolve("schematic.txt"), schematic);
+        var grid = new Task1(Task1.Mode.GRID);
+        var sum = ((Number) grid.solve(grid.parse(Input.of(file)))).longValue();
+        if (expected >= 0) {
+            assertEquals(expected, sum);
+        }
+        for (var mode : Task1.Mode.values()) {
+            var task = new Task1(mode);
+            assertEquals(sum, ((Number) task.solve(task.parse(Input.of(file)))).longValue(), mode.name());
+        }
+        for (var bandSize : new int[]{1, 2, 3, 7}) {
+            long bands = 0;
+            for (var band : SymbolBits.split(Input.of(file).mapped(), bandSize)) {
+                bands += band.partNumbers();
+            }
+            assertEquals(sum, bands, "band size " + bandSize);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package day03;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * All the modes agree on the gear ratios, also for a number next to two gears.
+ */
+class Task2Test {
+    @TempDir
+    Path dir;
+
+    @Test
+    void numberSharedByTwoGears() throws IOException {
+        assertAllModes("2*3*4\n.....\n", 2 * 3 + 3 * 4);
+    }
+
+    @Test
+    void numberAboveTwoGears() throws IOException {
+        assertAllModes("..45..\n.*..*.\n2....3\n", 2 * 45 + 45 * 3);
+    }
+
+    @Test
+    void sample() throws IOException {
+        assertAllModes("""
+          467..114..
+          ...*......
+          ..35..633.
+          ......#...
+          617*......
+          .....+.58.
+          ..592.....
+          ......755.
+          ...$.*....
+          .664.598..
+          """, 467835);
+    }
+
+    private void assertAllModes(String schematic, long expected) throws IOException {
+        var file = Files.writeString(dir.resolve("schematic.txt"), schematic);
+        for (var mode : Task2.Mode.values()) {
+            var task = new Task2(mode);
+            assertEquals(expected, task.solve(task.parse(Input.of(file))), mode.name());
+        }
+    }
+}
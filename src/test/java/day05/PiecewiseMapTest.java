@@ -0,0 +1,43 @@
+package day05;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Batch lookups keep the order of the keys.
+ */
+class PiecewiseMapTest {
+    private final Task1.Almanac almanac = new Task1().parse(Input.resolve(Task1.class, "input_small.txt"));
+    private final PiecewiseMap chain = almanac.maps().stream()
+      .map(PiecewiseMap::of)
+      .reduce(PiecewiseMap.identity(), PiecewiseMap::andThen);
+
+    @Test
+    void unsortedKeys() {
+        long[] keys = {79, 14, 55, 13, 99, 0, 14};
+        assertArrayEquals(new long[]{82, 43, 86, 35, 19, 22, 43}, chain.getAll(ForkJoinPool.commonPool(), keys));
+    }
+
+    @Test
+    void largeUnsortedBatch() {
+        var random = new Random(5);
+        var keys = new long[3 * PiecewiseMap.BATCH + 7];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(200);
+        }
+        var result = chain.getAll(ForkJoinPool.commonPool(), keys);
+        for (int i = 0; i < keys.length; i++) {
+            var expected = keys[i];
+            for (var map : almanac.maps()) {
+                expected = map.get(expected);
+            }
+            assertEquals(expected, result[i], "key " + keys[i]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package day06;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The long path up to {@link Races#MAX_TIME}, checked against a binary search for the lowest winning hold.
+ */
+class RacesTest {
+    @Test
+    void sample() {
+        assertEquals(4, Races.winningOptions(7, 9));
+        assertEquals(8, Races.winningOptions(15, 40));
+        assertEquals(9, Races.winningOptions(30, 200));
+        assertEquals(71503, Races.winningOptions(71530, 940200));
+    }
+
+    @Test
+    void sqrtNearLongLimit() {
+        var max = Races.MAX_TIME;
+        assertEquals(max, Races.sqrt(max * max));
+        assertEquals(max - 1, Races.sqrt(max * max - 1));
+        assertEquals(max, Races.sqrt(Long.MAX_VALUE));
+        assertEquals(0, Races.sqrt(0));
+        assertEquals(1, Races.sqrt(3));
+    }
+
+    @Test
+    void maxTime() {
+        var max = Races.MAX_TIME;
+        assertEquals(max - 1, Races.winningOptions(max, 0));
+        for (var time : new long[]{max - 2, max - 1, max}) {
+            for (var distance : new long[]{0, 1, time - 1, time, time * (time / 2) - 1, time / 2 * (time - time / 2)}) {
+                assertEquals(bySearch(time, distance), Races.winningOptions(time, distance),
+                  "race (%d, %d)".formatted(time, distance));
+            }
+        }
+    }
+
+    /**
+     * Holds are symmetric around {@code time / 2} and grow the distance up to it.
+     */
+    private static long bySearch(long time, long distance) {
+        var t = BigInteger.valueOf(time);
+        var d = BigInteger.valueOf(distance);
+        long low = 0, high = time / 2 + 1; // the lowest winning hold is in between, high if none
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            var h = BigInteger.valueOf(mid);
+            if (h.multiply(t.subtract(h)).compareTo(d) > 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low > time / 2 ? 0 : time - 2 * low + 1;
+    }
+
+    @Test
+    void bigIntegerPath() {
+        var time = BigInteger.valueOf(Races.MAX_TIME).add(BigInteger.TEN);
+        assertEquals(time.subtract(BigInteger.ONE), Races.winningOptions(time, BigInteger.ZERO));
+    }
+}
@@ -0,0 +1,68 @@
+package day07;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Winnings merged from small runs against the in-memory ranking, the run files have to be gone afterwards.
+ */
+class ExternalSortTest {
+    private static final String CARDS = "23456789TJQKA";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shippedInput() throws IOException {
+        assertSameAsMemory(Input.resolve(Task1.class, "input.txt"));
+    }
+
+    @Test
+    void equalHands() throws IOException {
+        // few distinct cards, so many hands are equal and the merge has to keep them in the input order
+        var random = new Random(21);
+        var text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            for (int card = 0; card < 5; card++) {
+                text.append(CARDS.charAt(8 + random.nextInt(4)));
+            }
+            text.append(' ').append(1 + random.nextInt(1000)).append('\n');
+        }
+        assertSameAsMemory(Input.of(Files.writeString(dir.resolve("hands.txt"), text)));
+    }
+
+    @Test
+    void singleHand() throws IOException {
+        assertSameAsMemory(Input.of(Files.writeString(dir.resolve("hand.txt"), "32T3K 765\n")));
+    }
+
+    private static void assertSameAsMemory(Input input) throws IOException {
+        var before = runFiles();
+        for (var withJokers : new boolean[]{false, true}) {
+            var memory = new Task1(withJokers);
+            var expected = ((Number) memory.solve(memory.parse(input))).longValue();
+            for (var runSize : new int[]{1, 2, 7}) {
+                assertEquals(expected, ExternalSort.winnings(input.mapped(), withJokers, runSize),
+                  "jokers %s, run size %d".formatted(withJokers, runSize));
+            }
+        }
+        assertEquals(before, runFiles());
+    }
+
+    private static Set<Path> runFiles() throws IOException {
+        try (var files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("day07-runs"))
+              .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package day08;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lassos of the ghosts and their first meeting against walking all the ghosts step by step.
+ */
+class CycleTest {
+    private static final String GHOSTS = """
+      LR
+
+      11A = (11B, 11B)
+      11B = (11Z, 11Z)
+      11Z = (11C, 11C)
+      11C = (12Z, 12Z)
+      12Z = (11D, 11D)
+      11D = (11B, 11B)
+      21A = (21B, 21B)
+      21B = (21C, 21C)
+      21C = (21D, 21D)
+      21D = (21E, 21E)
+      21E = (21F, 21F)
+      21F = (21Z, 21Z)
+      21Z = (21G, 21G)
+      21G = (21Z, 21Z)
+      """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void severalTargetsInTheLoop() throws IOException {
+        var network = network(GHOSTS);
+        var cycle = Cycle.of(network, network.id("11A"), node -> network.endsWith(node, 'Z'));
+        // 5 nodes in the loop, twice that with the offset of the instructions
+        assertEquals(1, cycle.start());
+        assertEquals(10, cycle.period());
+        assertArrayEquals(new long[]{2, 4, 7, 9}, cycle.hits());
+        assertHits(network, cycle, network.id("11A"), node -> network.endsWith(node, 'Z'));
+    }
+
+    @Test
+    void tailLongerThanTheLoop() throws IOException {
+        var network = network(GHOSTS);
+        var cycle = Cycle.of(network, network.id("21A"), node -> network.endsWith(node, 'Z'));
+        assertEquals(6, cycle.start());
+        assertEquals(2, cycle.period());
+        assertArrayEquals(new long[]{6}, cycle.hits());
+        assertHits(network, cycle, network.id("21A"), node -> network.endsWith(node, 'Z'));
+    }
+
+    @Test
+    void meetingInTheLoops() throws IOException {
+        var network = network(GHOSTS);
+        assertMeeting(network, network.nodesEndingWith('A'), node -> network.endsWith(node, 'Z'));
+        assertEquals(12, meeting(network, network.nodesEndingWith('A'), node -> network.endsWith(node, 'Z')));
+    }
+
+    @Test
+    void meetingBeforeTheLoops() throws IOException {
+        var network = network("""
+          LR
+
+          41A = (41Z, 41Z)
+          41Z = (41B, 41B)
+          41B = (41B, 41B)
+          51A = (51Z, 51Z)
+          51Z = (51Z, 51Z)
+          """);
+        assertEquals(1, meeting(network, network.nodesEndingWith('A'), node -> network.endsWith(node, 'Z')));
+    }
+
+    @Test
+    void incompatibleCongruences() throws IOException {
+        // the first ghost is on a target after the odd steps, the second one after the even ones
+        var network = network("""
+          LR
+
+          61A = (61Z, 61Z)
+          61Z = (61A, 61A)
+          71A = (71B, 71B)
+          71B = (71Z, 71Z)
+          71Z = (71B, 71B)
+          """);
+        var starts = network.nodesEndingWith('A');
+        IntPredicate target = node -> network.endsWith(node, 'Z');
+        assertEquals(-1, walk(network, starts, target, 1000));
+        var cycles = Arrays.stream(starts).mapToObj(start -> Cycle.of(network, start, target)).toList();
+        var e = assertThrows(IllegalStateException.class, () -> Cycle.firstMeeting(cycles));
+        assertEquals("Ghosts never meet", e.getMessage());
+    }
+
+    @Test
+    void randomNetworks() throws IOException {
+        var random = new Random(24);
+        for (int i = 0; i < 200; i++) {
+            var size = 2 + random.nextInt(10);
+            var text = new StringBuilder();
+            for (int k = 1 + random.nextInt(4); k > 0; k--) {
+                text.append(random.nextBoolean() ? 'L' : 'R');
+            }
+            text.append("\n\n");
+            for (int node = 0; node < size; node++) {
+                text.append("%03d = (%03d, %03d)\n".formatted(node, random.nextInt(size), random.nextInt(size)));
+            }
+            var network = network(text.toString());
+            var targets = new boolean[size];
+            for (int node = 0; node < size; node++) {
+                targets[node] = random.nextInt(3) == 0;
+            }
+            var starts = random.ints(1 + random.nextInt(3), 0, size).toArray();
+            assertMeeting(network, starts, node -> targets[node]);
+        }
+    }
+
+    @Test
+    void congruences() {
+        assertEquals(9, Cycle.crt(1, 4, 3, 6));
+        assertEquals(-1, Cycle.crt(2, 4, 3, 6));
+        assertEquals(8, Cycle.crt(2, 3, 3, 5));
+        assertEquals(6, Cycle.gcd(12, 18));
+        assertEquals(36, Cycle.lcm(12, 18));
+    }
+
+    private Network network(String text) throws IOException {
+        return Network.parse(Input.of(Files.writeString(dir.resolve("network.txt"), text)).mapped());
+    }
+
+    private static void assertHits(Network network, Cycle cycle, int start, IntPredicate target) {
+        var node = start;
+        for (int step = 0; step < 100; step++) {
+            assertEquals(target.test(node), cycle.isHit(step), "step " + step);
+            node = network.next(node, step % network.instructions());
+        }
+    }
+
+    /**
+     * The meeting of the cycles is the first one of the walk, or the walk finds none and neither do the cycles
+     * within its limit.
+     */
+    private static void assertMeeting(Network network, int[] starts, IntPredicate target) {
+        var limit = 10_000;
+        var expected = walk(network, starts, target, limit);
+        var cycles = new ArrayList<Cycle>();
+        for (int start : starts) {
+            cycles.add(Cycle.of(network, start, target));
+        }
+        try {
+            var meeting = Cycle.firstMeeting(cycles);
+            if (expected == -1) {
+                assertTrue(meeting > limit, "meeting " + meeting);
+            } else {
+                assertEquals(expected, meeting);
+            }
+        } catch (IllegalStateException e) {
+            assertEquals(-1, expected);
+        }
+    }
+
+    private static long meeting(Network network, int[] starts, IntPredicate target) {
+        return Cycle.firstMeeting(Arrays.stream(starts).mapToObj(start -> Cycle.of(network, start, target)).toList());
+    }
+
+    /**
+     * The first step, at least 1, after which all the ghosts are on a target, -1 if none up to the limit.
+     */
+    private static long walk(Network network, int[] starts, IntPredicate target, int limit) {
+        var nodes = starts.clone();
+        for (int step = 1; step <= limit; step++) {
+            var all = true;
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = network.next(nodes[i], (step - 1) % network.instructions());
+                all &= target.test(nodes[i]);
+            }
+            if (all) {
+                return step;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,125 @@
+package day08;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Jumps against stepping one instruction at a time, also for the step counts that are not a power of two
+ * nor a multiple of the instructions, and the meetings of the solver checked by the jumps.
+ */
+class JumpsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void randomNetworks() throws IOException {
+        var random = new Random(25);
+        for (int i = 0; i < 100; i++) {
+            var size = 1 + random.nextInt(12);
+            var network = network(random, size, 1 + random.nextInt(5));
+            var targets = new boolean[size];
+            for (int node = 0; node < size; node++) {
+                targets[node] = random.nextInt(4) == 0;
+            }
+            var maxSteps = random.nextInt(200);
+            var jumps = new Jumps(network, node -> targets[node], maxSteps);
+            for (int start = 0; start < size; start++) {
+                var node = start;
+                var first = -1L;
+                for (int steps = 0; steps <= maxSteps; steps++) {
+                    assertEquals(node, jumps.position(start, steps), "position after " + steps);
+                    assertEquals(first, jumps.firstHit(start, steps), "first hit within " + steps);
+                    node = network.next(node, steps % network.instructions());
+                    if (first == -1 && targets[node]) {
+                        first = steps + 1;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void batches() throws IOException {
+        var random = new Random(8);
+        var size = 50;
+        var network = network(random, size, 7);
+        IntPredicate target = node -> node % 9 == 0;
+        var maxSteps = 1_000_003L;
+        var jumps = new Jumps(network, target, maxSteps);
+        // big enough for the parallel path
+        var starts = random.ints(Jumps.PARALLEL_BATCH + 11, 0, size).toArray();
+        var steps = random.longs(starts.length, 0, maxSteps + 1).toArray();
+        var positions = jumps.positions(starts, steps);
+        var firstHits = jumps.firstHits(starts, steps);
+        for (int i = 0; i < starts.length; i++) {
+            assertEquals(jumps.position(starts[i], steps[i]), positions[i]);
+            assertEquals(jumps.firstHit(starts[i], steps[i]), firstHits[i]);
+        }
+        assertArrayEquals(new int[]{jumps.position(3, 12_345)}, jumps.positions(new int[]{3}, new long[]{12_345}));
+    }
+
+    @Test
+    void stepsOutOfRange() throws IOException {
+        var network = network(new Random(1), 3, 2);
+        var jumps = new Jumps(network, node -> node == 0, 10);
+        assertThrows(IllegalArgumentException.class, () -> jumps.position(0, 11));
+        assertThrows(IllegalArgumentException.class, () -> jumps.firstHit(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> jumps.positions(new int[]{0}, new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new Jumps(network, node -> true, -1));
+    }
+
+    @Test
+    void singleGhostMeetings() {
+        for (var name : new String[]{"input_small.txt", "input_small2.txt", "input.txt"}) {
+            var network = Network.parse(Input.resolve(Task1.class, name).mapped());
+            var meeting = (long) new Task1(false).solve(network);
+            var end = network.id("ZZZ");
+            var jumps = new Jumps(network, node -> node == end, meeting);
+            assertEquals(end, jumps.position(network.id("AAA"), meeting), name);
+            assertEquals(meeting, jumps.firstHit(network.id("AAA"), meeting), name);
+        }
+    }
+
+    @Test
+    void ghostMeetings() {
+        for (var name : new String[]{"input_small3.txt", "input.txt"}) {
+            var network = Network.parse(Input.resolve(Task1.class, name).mapped());
+            var meeting = (long) new Task1(true).solve(network);
+            IntPredicate target = node -> network.endsWith(node, 'Z');
+            var starts = network.nodesEndingWith('A');
+            var steps = new long[starts.length];
+            Arrays.fill(steps, meeting);
+            for (int position : new Jumps(network, target, meeting).positions(starts, steps)) {
+                assertTrue(target.test(position), name);
+            }
+        }
+    }
+
+    /**
+     * Nodes with random edges, named by their index.
+     */
+    private Network network(Random random, int size, int instructions) throws IOException {
+        var text = new StringBuilder();
+        for (int i = 0; i < instructions; i++) {
+            text.append(random.nextBoolean() ? 'L' : 'R');
+        }
+        text.append("\n\n");
+        for (int node = 0; node < size; node++) {
+            text.append("%03d = (%03d, %03d)\n".formatted(node, random.nextInt(size), random.nextInt(size)));
+        }
+        return Network.parse(Input.of(Files.writeString(dir.resolve("network.txt"), text)).mapped());
+    }
+}
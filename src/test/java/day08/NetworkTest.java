@@ -0,0 +1,82 @@
+package day08;
+
+import common.Input;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interning of the node ids and the steps of a hand-built network.
+ */
+class NetworkTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void idsInTheOrderOfDefinitions() throws IOException {
+        var network = network("""
+          RLL
+
+          ZZZ = (ZZZ, ZZZ)
+          AAA = (B1B, 9CZ)
+          B1B = (ZZZ, AAA)
+          9CZ = (AAA, B1B)
+          """);
+        assertEquals(4, network.size());
+        assertEquals(3, network.instructions());
+        assertArrayEquals(new String[]{"ZZZ", "AAA", "B1B", "9CZ"},
+          new String[]{network.name(0), network.name(1), network.name(2), network.name(3)});
+        assertEquals(1, network.id("AAA"));
+        assertEquals(3, network.id("9CZ"));
+        assertEquals(-1, network.id("XYZ"));
+        assertTrue(network.endsWith(3, 'Z'));
+        assertFalse(network.endsWith(2, 'Z'));
+        assertArrayEquals(new int[]{0, 3}, network.nodesEndingWith('Z'));
+        assertArrayEquals(new int[]{1}, network.nodesEndingWith('A'));
+    }
+
+    @Test
+    void stepsFollowTheInstructions() throws IOException {
+        var network = network("""
+          RLL
+
+          AAA = (BBB, CCC)
+          BBB = (CCC, AAA)
+          CCC = (AAA, BBB)
+          """);
+        // R, L, L from AAA
+        assertEquals(2, network.next(0, 0));
+        assertEquals(0, network.next(2, 1));
+        assertEquals(1, network.next(0, 2));
+    }
+
+    @Test
+    void crlfAndBlankLines() throws IOException {
+        var network = network("LR\r\n\r\nAAA = (BBB, AAA)\r\n\r\nBBB = (AAA, BBB)\r\n");
+        assertEquals(2, network.size());
+        assertEquals(1, network.next(0, 0));
+        assertEquals(1, network.next(1, 1));
+    }
+
+    @Test
+    void incorrectInput() {
+        assertThrows(RuntimeException.class, () -> network("LX\n\nAAA = (AAA, AAA)\n"));
+        assertThrows(RuntimeException.class, () -> network("L\n\nAAA = (BBB, AAA)\n"));
+        assertThrows(RuntimeException.class, () -> network("L\n\nAAA = (AAA, AAA)\nAAA = (AAA, AAA)\n"));
+        assertThrows(RuntimeException.class, () -> network("L\n\nAAA = (AAA,AAA)\n"));
+        assertThrows(RuntimeException.class, () -> network("\n\n"));
+    }
+
+    private Network network(String text) throws IOException {
+        return Network.parse(Input.of(Files.writeString(dir.resolve("network.txt"), text)).mapped());
+    }
+}